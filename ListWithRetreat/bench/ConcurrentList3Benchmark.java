@@ -0,0 +1,318 @@
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import components.list.List;
+
+/**
+ * Contention benchmark for {@code ConcurrentList3}: one writer thread edits at
+ * the cursor while a growing number of reader threads read the lengths or
+ * iterate, and the total reader throughput and the writer throughput are
+ * reported for each reader count.
+ *
+ * <p>
+ * In the {@code ITERATE} workload the first iteration after each edit copies
+ * the entries under the read lock, which the writer then waits for; the
+ * writer throughput shows what that costs as the list grows.
+ * </p>
+ *
+ * <p>
+ * For comparison the same workload is run on a {@code List3} shared through
+ * {@code synchronized} blocks on the list, which is what callers had to do
+ * before; there every reader call excludes every other one, so reader
+ * throughput cannot grow with the number of cores.
+ * </p>
+ *
+ * <p>
+ * Run it without assertion checking ({@code -ea}). Usage:
+ * </p>
+ *
+ * <pre>
+ * java ConcurrentList3Benchmark [listSize [secondsPerRun [maxReaders]]]
+ * </pre>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public final class ConcurrentList3Benchmark {
+
+    /**
+     * Default number of entries in the shared list.
+     */
+    private static final int DEFAULT_SIZE = 1_000;
+
+    /**
+     * Default number of seconds spent measuring each run.
+     */
+    private static final double DEFAULT_SECONDS = 1.0;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Milliseconds spent warming up before each run.
+     */
+    private static final long WARMUP_MILLIS = 200;
+
+    /**
+     * Entry inserted by the writer.
+     */
+    private static final Integer ENTRY = 0;
+
+    /**
+     * Accumulates results of reader calls so the JIT cannot discard them.
+     */
+    private static volatile long sink;
+
+    /**
+     * Access to the shared list, either through {@code ConcurrentList3} or
+     * through {@code synchronized} blocks on a {@code List3}.
+     */
+    private interface Shared {
+
+        /**
+         * Reads both lengths.
+         *
+         * @return |left| + |right|
+         */
+        int lengths();
+
+        /**
+         * Iterates over the entries.
+         *
+         * @return the number of entries seen
+         */
+        int iterate();
+
+        /**
+         * Adds an entry at the cursor and removes it again.
+         */
+        void edit();
+
+    }
+
+    /**
+     * Reader workloads.
+     */
+    private enum Workload {
+        /**
+         * Readers call {@code leftLength} and {@code rightLength}.
+         */
+        LENGTHS,
+        /**
+         * Readers iterate over the whole list.
+         */
+        ITERATE
+    }
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private ConcurrentList3Benchmark() {
+    }
+
+    /**
+     * Returns a {@code Shared} over a new {@code ConcurrentList3} of
+     * {@code size} entries.
+     *
+     * @param size
+     *            the number of entries
+     * @return the shared list
+     */
+    private static Shared concurrent(int size) {
+        final List<Integer> list = new ConcurrentList3<Integer>();
+        for (int i = 0; i < size; i++) {
+            list.addRightFront(i);
+        }
+        return new Shared() {
+            @Override
+            public int lengths() {
+                return list.leftLength() + list.rightLength();
+            }
+
+            @Override
+            public int iterate() {
+                int n = 0;
+                for (Integer x : list) {
+                    n += x;
+                }
+                return n;
+            }
+
+            @Override
+            public void edit() {
+                list.addRightFront(ENTRY);
+                list.removeRightFront();
+            }
+        };
+    }
+
+    /**
+     * Returns a {@code Shared} over a new {@code List3} of {@code size}
+     * entries, guarded by {@code synchronized} blocks.
+     *
+     * @param size
+     *            the number of entries
+     * @return the shared list
+     */
+    private static Shared synchronizedList3(int size) {
+        final List<Integer> list = new List3<Integer>();
+        for (int i = 0; i < size; i++) {
+            list.addRightFront(i);
+        }
+        return new Shared() {
+            @Override
+            public int lengths() {
+                synchronized (list) {
+                    return list.leftLength() + list.rightLength();
+                }
+            }
+
+            @Override
+            public int iterate() {
+                synchronized (list) {
+                    int n = 0;
+                    for (Integer x : list) {
+                        n += x;
+                    }
+                    return n;
+                }
+            }
+
+            @Override
+            public void edit() {
+                synchronized (list) {
+                    list.addRightFront(ENTRY);
+                    list.removeRightFront();
+                }
+            }
+        };
+    }
+
+    /**
+     * Runs one writer and {@code readers} readers on {@code shared} for about
+     * {@code seconds} seconds and returns the reader and writer throughput.
+     *
+     * @param shared
+     *            the shared list
+     * @param workload
+     *            what the readers do
+     * @param readers
+     *            the number of reader threads
+     * @param seconds
+     *            the number of seconds to measure for
+     * @return reader operations per second, over all readers, and writer
+     *         edits per second
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    private static double[] run(final Shared shared, final Workload workload,
+            int readers, double seconds) throws InterruptedException {
+        final AtomicBoolean measuring = new AtomicBoolean(false);
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final LongAdder readerOps = new LongAdder();
+        final LongAdder writerOps = new LongAdder();
+        final CountDownLatch started = new CountDownLatch(readers + 1);
+        Thread[] threads = new Thread[readers + 1];
+        threads[0] = new Thread(() -> {
+            started.countDown();
+            long ops = 0;
+            boolean counting = false;
+            while (!done.get()) {
+                if (!counting && measuring.get()) {
+                    counting = true;
+                    ops = 0;
+                }
+                shared.edit();
+                ops++;
+            }
+            if (counting) {
+                writerOps.add(ops);
+            }
+        });
+        for (int r = 1; r <= readers; r++) {
+            threads[r] = new Thread(() -> {
+                started.countDown();
+                long ops = 0;
+                long total = 0;
+                boolean counting = false;
+                while (!done.get()) {
+                    if (!counting && measuring.get()) {
+                        counting = true;
+                        ops = 0;
+                    }
+                    if (workload == Workload.LENGTHS) {
+                        total += shared.lengths();
+                    } else {
+                        total += shared.iterate();
+                    }
+                    ops++;
+                }
+                if (counting) {
+                    readerOps.add(ops);
+                }
+                sink += total;
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        started.await();
+        Thread.sleep(WARMUP_MILLIS);
+        measuring.set(true);
+        long start = System.nanoTime();
+        Thread.sleep((long) (seconds * 1_000));
+        done.set(true);
+        long elapsed = System.nanoTime() - start;
+        for (Thread t : threads) {
+            t.join();
+        }
+        double elapsedSeconds = elapsed / NANOS_PER_SECOND;
+        return new double[] { readerOps.sum() / elapsedSeconds,
+                writerOps.sum() / elapsedSeconds };
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            optional list size, seconds per run, and maximum number of
+     *            reader threads
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int size = (args.length > 0) ? Integer.parseInt(args[0])
+                : DEFAULT_SIZE;
+        double seconds = (args.length > 1) ? Double.parseDouble(args[1])
+                : DEFAULT_SECONDS;
+        int maxReaders = (args.length > 2) ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+
+        boolean assertionsOn = false;
+        assert assertionsOn = true;
+        if (assertionsOn) {
+            System.err.println("Warning: assertions are enabled; the numbers"
+                    + " will be dominated by conventionHolds");
+        }
+
+        for (Workload w : Workload.values()) {
+            for (int readers = 1; readers <= maxReaders; readers *= 2) {
+                double[] concurrent = run(concurrent(size), w, readers,
+                        seconds);
+                double[] synced = run(synchronizedList3(size), w, readers,
+                        seconds);
+                System.out.println(String.format(Locale.ROOT,
+                        "%-8s %3d readers  ConcurrentList3 %,16.1f ops/s"
+                                + " %,14.1f edits/s  synchronized List3"
+                                + " %,16.1f ops/s %,14.1f edits/s",
+                        w, readers, concurrent[0], concurrent[1], synced[0],
+                        synced[1]));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,670 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.Locale;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Throughput and allocation benchmark for the kernel and secondary methods of
+ * {@code List3}, measured side by side with the {@code List1L} reference
+ * implementation.
+ *
+ * <p>
+ * Every benchmark is run for each list size in {@code SIZES} and, where the
+ * cursor matters, with the cursor at the start, in the middle, and at the
+ * finish of the list. For each run the harness reports throughput (operations
+ * per second), allocation rate (bytes allocated per operation, from the
+ * per-thread allocation counter), and the number of garbage collections
+ * observed while measuring.
+ * </p>
+ *
+ * <p>
+ * Run it <em>without</em> assertion checking ({@code -ea}), since with
+ * assertions enabled every {@code List3} call walks the whole list in
+ * {@code conventionHolds} and the numbers are meaningless. Usage:
+ * </p>
+ *
+ * <pre>
+ * java -Xmx8g List3Benchmark [maxSize [secondsPerRun [impl]]]
+ * </pre>
+ *
+ * <p>
+ * where {@code impl} is {@code List3}, {@code List3p} ({@code List3} with node
+ * pooling turned on), {@code List4} (unrolled), {@code List5} (gap buffer),
+ * {@code List1L}, or {@code all} (the default).
+ * </p>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public final class List3Benchmark {
+
+    /**
+     * List sizes to benchmark, from 10 to 10^7.
+     */
+    private static final int[] SIZES = { 10, 100, 1_000, 10_000, 100_000,
+            1_000_000, 10_000_000 };
+
+    /**
+     * Number of cursor-local operations timed in one batch.
+     */
+    private static final int BATCH = 1_024;
+
+    /**
+     * Default number of seconds spent measuring each benchmark.
+     */
+    private static final double DEFAULT_SECONDS = 0.5;
+
+    /**
+     * Fraction of the measuring time spent warming up first.
+     */
+    private static final double WARMUP_FRACTION = 0.5;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Entry inserted by the timed {@code addRightFront} calls; boxed once so
+     * the allocation numbers show only what the list itself allocates.
+     */
+    private static final Integer ENTRY = 0;
+
+    /**
+     * Accumulates results of timed calls so the JIT cannot discard them.
+     */
+    private static volatile long sink;
+
+    /**
+     * Cursor positions at which the cursor-dependent benchmarks are run.
+     */
+    private enum Position {
+        /**
+         * Cursor at the start of the list ({@code leftLength = 0}).
+         */
+        START,
+        /**
+         * Cursor in the middle of the list.
+         */
+        MIDDLE,
+        /**
+         * Cursor at the finish of the list ({@code rightLength = 0}).
+         */
+        FINISH;
+
+        /**
+         * Returns the left length for this position in a list of the given
+         * size.
+         *
+         * @param size
+         *            the length of the list
+         * @return the left length
+         */
+        int leftLength(int size) {
+            int result;
+            switch (this) {
+                case START:
+                    result = 0;
+                    break;
+                case MIDDLE:
+                    result = size / 2;
+                    break;
+                default:
+                    result = size;
+                    break;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Factory for the list implementation being measured.
+     */
+    private interface Factory {
+
+        /**
+         * Returns a new empty list.
+         *
+         * @return the new list
+         * @ensures newList = (<>, <>)
+         */
+        List<Integer> newList();
+
+    }
+
+    /**
+     * One benchmark: a timed phase and an untimed phase that restores the list
+     * so the timed phase can be repeated.
+     */
+    private interface Benchmark {
+
+        /**
+         * Runs the timed part of one round and returns the number of
+         * operations performed.
+         *
+         * @param list
+         *            the list being measured
+         * @param other
+         *            a second list of the same type and contents, for binary
+         *            operations
+         * @return the number of operations performed
+         */
+        int timed(List<Integer> list, List<Integer> other);
+
+        /**
+         * Restores {@code list} and {@code other} after a call to
+         * {@code timed}.
+         *
+         * @param list
+         *            the list being measured
+         * @param other
+         *            the second list
+         * @param ops
+         *            the value returned by the matching call to {@code timed}
+         */
+        void restore(List<Integer> list, List<Integer> other, int ops);
+
+    }
+
+    /**
+     * Result of measuring one benchmark.
+     */
+    private static final class Result {
+
+        /**
+         * Operations per second.
+         */
+        private final double throughput;
+
+        /**
+         * Bytes allocated per operation.
+         */
+        private final double bytesPerOp;
+
+        /**
+         * Garbage collections observed while measuring.
+         */
+        private final long gcCount;
+
+        /**
+         * Constructor from the measured values.
+         *
+         * @param throughput
+         *            operations per second
+         * @param bytesPerOp
+         *            bytes allocated per operation
+         * @param gcCount
+         *            garbage collections observed while measuring
+         */
+        private Result(double throughput, double bytesPerOp, long gcCount) {
+            this.throughput = throughput;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount = gcCount;
+        }
+
+    }
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private List3Benchmark() {
+    }
+
+    /**
+     * Fills {@code list} with {@code size} entries and places the cursor at
+     * {@code leftLength}.
+     *
+     * @param list
+     *            the list to fill
+     * @param size
+     *            the number of entries
+     * @param leftLength
+     *            the length of the left string
+     * @updates list
+     * @requires list = (<>, <>) and 0 <= leftLength <= size
+     * @ensures |list.left| = leftLength and |list.left * list.right| = size
+     */
+    private static void fill(List<Integer> list, int size, int leftLength) {
+        for (int i = 0; i < size; i++) {
+            list.addRightFront(size - i);
+        }
+        for (int i = 0; i < leftLength; i++) {
+            list.advance();
+        }
+    }
+
+    /**
+     * Moves the cursor of {@code list} to {@code leftLength}.
+     *
+     * @param list
+     *            the list
+     * @param leftLength
+     *            the new length of the left string
+     * @updates list
+     * @requires 0 <= leftLength <= |list.left * list.right|
+     * @ensures list.left * list.right = #list.left * #list.right and
+     *          |list.left| = leftLength
+     */
+    private static void position(List<Integer> list, int leftLength) {
+        if (list.leftLength() > leftLength) {
+            list.moveToStart();
+        }
+        while (list.leftLength() < leftLength) {
+            list.advance();
+        }
+    }
+
+    /**
+     * Returns the number of garbage collections performed so far.
+     *
+     * @return the total collection count over all collectors
+     */
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory
+                .getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread, or
+     * -1 if the JVM does not support allocation measurement.
+     *
+     * @return the bytes allocated by the current thread
+     */
+    private static long allocatedBytes() {
+        long result = -1;
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            result = sunBean
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return result;
+    }
+
+    /**
+     * Measures {@code b} on {@code list} and {@code other} for about
+     * {@code seconds} seconds, after a warm-up.
+     *
+     * @param b
+     *            the benchmark
+     * @param list
+     *            the list being measured
+     * @param other
+     *            the second list
+     * @param seconds
+     *            the number of seconds to measure for
+     * @return the measured result
+     */
+    private static Result measure(Benchmark b, List<Integer> list,
+            List<Integer> other, double seconds) {
+        long warmupEnd = System.nanoTime()
+                + (long) (seconds * WARMUP_FRACTION * NANOS_PER_SECOND);
+        while (System.nanoTime() < warmupEnd) {
+            int ops = b.timed(list, other);
+            b.restore(list, other, ops);
+        }
+        long budget = (long) (seconds * NANOS_PER_SECOND);
+        long elapsed = 0;
+        long ops = 0;
+        long bytes = 0;
+        long probeStart = allocatedBytes();
+        long probeOverhead = allocatedBytes() - probeStart;
+        long gcBefore = gcCount();
+        do {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            int n = b.timed(list, other);
+            long end = System.nanoTime();
+            long bytesAfter = allocatedBytes();
+            b.restore(list, other, n);
+            elapsed += end - start;
+            ops += n;
+            bytes += Math.max(0, bytesAfter - bytesBefore - probeOverhead);
+        } while (elapsed < budget && ops < Integer.MAX_VALUE);
+        long gcs = gcCount() - gcBefore;
+        double elapsedSeconds = Math.max(elapsed, 1) / NANOS_PER_SECOND;
+        return new Result(ops / elapsedSeconds, (double) bytes / ops, gcs);
+    }
+
+    /**
+     * Prints one line of results.
+     *
+     * @param impl
+     *            the name of the implementation
+     * @param name
+     *            the name of the benchmark
+     * @param size
+     *            the list size
+     * @param p
+     *            the cursor position, or null if not relevant
+     * @param r
+     *            the result
+     */
+    private static void report(String impl, String name, int size,
+            Position p, Result r) {
+        System.out.println(String.format(Locale.ROOT,
+                "%-7s %-22s %,11d %-7s %,18.1f ops/s %,10.1f B/op %5d gc",
+                impl, name, size, (p == null) ? "-" : p.toString(),
+                r.throughput, r.bytesPerOp, r.gcCount));
+    }
+
+    /**
+     * Runs every benchmark for the given implementation and list size.
+     *
+     * @param impl
+     *            the name of the implementation
+     * @param factory
+     *            factory for lists of that implementation
+     * @param size
+     *            the list size
+     * @param seconds
+     *            seconds to measure each benchmark for
+     */
+    private static void runAll(String impl, Factory factory, int size,
+            double seconds) {
+        for (Position p : Position.values()) {
+            final int leftLength = p.leftLength(size);
+            List<Integer> list = factory.newList();
+            fill(list, size, leftLength);
+
+            report(impl, "addRightFront", size, p,
+                    measure(new Benchmark() {
+                        @Override
+                        public int timed(List<Integer> l, List<Integer> o) {
+                            for (int i = 0; i < BATCH; i++) {
+                                l.addRightFront(ENTRY);
+                            }
+                            return BATCH;
+                        }
+
+                        @Override
+                        public void restore(List<Integer> l, List<Integer> o,
+                                int ops) {
+                            for (int i = 0; i < ops; i++) {
+                                l.removeRightFront();
+                            }
+                        }
+                    }, list, null, seconds));
+
+            /*
+             * Removals need BATCH extra entries at the front of this.right,
+             * which restore puts back after every timed round
+             */
+            for (int i = 0; i < BATCH; i++) {
+                list.addRightFront(i);
+            }
+            report(impl, "removeRightFront", size, p,
+                    measure(new Benchmark() {
+                        @Override
+                        public int timed(List<Integer> l, List<Integer> o) {
+                            for (int i = 0; i < BATCH; i++) {
+                                sink += l.removeRightFront();
+                            }
+                            return BATCH;
+                        }
+
+                        @Override
+                        public void restore(List<Integer> l, List<Integer> o,
+                                int ops) {
+                            for (int i = 0; i < ops; i++) {
+                                l.addRightFront(ENTRY);
+                            }
+                        }
+                    }, list, null, seconds));
+            for (int i = 0; i < BATCH; i++) {
+                list.removeRightFront();
+            }
+
+            if (size - leftLength > 0) {
+                report(impl, "advance", size, p, measure(new Benchmark() {
+                    @Override
+                    public int timed(List<Integer> l, List<Integer> o) {
+                        int n = Math.min(BATCH, l.rightLength());
+                        for (int i = 0; i < n; i++) {
+                            l.advance();
+                        }
+                        return n;
+                    }
+
+                    @Override
+                    public void restore(List<Integer> l, List<Integer> o,
+                            int ops) {
+                        position(l, leftLength);
+                    }
+                }, list, null, seconds));
+            }
+
+            if (leftLength > 0) {
+                report(impl, "retreat", size, p, measure(new Benchmark() {
+                    @Override
+                    public int timed(List<Integer> l, List<Integer> o) {
+                        int n = Math.min(BATCH, l.leftLength());
+                        for (int i = 0; i < n; i++) {
+                            l.retreat();
+                        }
+                        return n;
+                    }
+
+                    @Override
+                    public void restore(List<Integer> l, List<Integer> o,
+                            int ops) {
+                        for (int i = 0; i < ops; i++) {
+                            l.advance();
+                        }
+                    }
+                }, list, null, seconds));
+            }
+
+            report(impl, "moveToStart", size, p, measure(new Benchmark() {
+                @Override
+                public int timed(List<Integer> l, List<Integer> o) {
+                    l.moveToStart();
+                    return 1;
+                }
+
+                @Override
+                public void restore(List<Integer> l, List<Integer> o,
+                        int ops) {
+                    position(l, leftLength);
+                }
+            }, list, null, seconds));
+
+            report(impl, "moveToFinish", size, p, measure(new Benchmark() {
+                @Override
+                public int timed(List<Integer> l, List<Integer> o) {
+                    l.moveToFinish();
+                    return 1;
+                }
+
+                @Override
+                public void restore(List<Integer> l, List<Integer> o,
+                        int ops) {
+                    position(l, leftLength);
+                }
+            }, list, null, seconds));
+        }
+
+        List<Integer> list = factory.newList();
+        fill(list, size, size / 2);
+        List<Integer> other = factory.newList();
+        fill(other, size, size / 2);
+
+        report(impl, "transferFrom", size, null, measure(new Benchmark() {
+            @Override
+            public int timed(List<Integer> l, List<Integer> o) {
+                o.transferFrom(l);
+                l.transferFrom(o);
+                return 2;
+            }
+
+            @Override
+            public void restore(List<Integer> l, List<Integer> o, int ops) {
+                // nothing to restore
+            }
+        }, list, other, seconds));
+
+        report(impl, "iterator", size, null, measure(new Benchmark() {
+            @Override
+            public int timed(List<Integer> l, List<Integer> o) {
+                Iterator<Integer> it = l.iterator();
+                while (it.hasNext()) {
+                    sink += it.next();
+                }
+                return 1;
+            }
+
+            @Override
+            public void restore(List<Integer> l, List<Integer> o, int ops) {
+                // nothing to restore
+            }
+        }, list, null, seconds));
+
+        report(impl, "append", size, null, measure(new Benchmark() {
+            @Override
+            public int timed(List<Integer> l, List<Integer> o) {
+                l.append(o);
+                return 1;
+            }
+
+            @Override
+            public void restore(List<Integer> l, List<Integer> o, int ops) {
+                l.clear();
+                fill(l, size, size / 2);
+                o.clear();
+                fill(o, size, size / 2);
+            }
+        }, list, other, seconds));
+
+        report(impl, "flip", size, null, measure(new Benchmark() {
+            @Override
+            public int timed(List<Integer> l, List<Integer> o) {
+                l.flip();
+                return 1;
+            }
+
+            @Override
+            public void restore(List<Integer> l, List<Integer> o, int ops) {
+                // flipping again restores the original order
+            }
+        }, list, null, seconds));
+
+        report(impl, "equals", size, null, measure(new Benchmark() {
+            @Override
+            public int timed(List<Integer> l, List<Integer> o) {
+                if (l.equals(o)) {
+                    sink++;
+                }
+                return 1;
+            }
+
+            @Override
+            public void restore(List<Integer> l, List<Integer> o, int ops) {
+                // nothing to restore
+            }
+        }, list, other, seconds));
+
+        report(impl, "hashCode", size, null, measure(new Benchmark() {
+            @Override
+            public int timed(List<Integer> l, List<Integer> o) {
+                sink += l.hashCode();
+                return 1;
+            }
+
+            @Override
+            public void restore(List<Integer> l, List<Integer> o, int ops) {
+                // nothing to restore
+            }
+        }, list, null, seconds));
+
+        report(impl, "toString", size, null, measure(new Benchmark() {
+            @Override
+            public int timed(List<Integer> l, List<Integer> o) {
+                sink += l.toString().length();
+                return 1;
+            }
+
+            @Override
+            public void restore(List<Integer> l, List<Integer> o, int ops) {
+                // nothing to restore
+            }
+        }, list, null, seconds));
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            optional maximum list size, seconds per benchmark, and
+     *            implementation name ({@code List3}, {@code List3p},
+     *            {@code List4}, {@code List5}, {@code List1L}, or
+     *            {@code all})
+     */
+    public static void main(String[] args) {
+        int maxSize = (args.length > 0) ? Integer.parseInt(args[0])
+                : SIZES[SIZES.length - 1];
+        double seconds = (args.length > 1) ? Double.parseDouble(args[1])
+                : DEFAULT_SECONDS;
+        String impl = (args.length > 2) ? args[2] : "all";
+
+        boolean assertionsOn = false;
+        assert assertionsOn = true;
+        if (assertionsOn) {
+            System.err.println("Warning: assertions are enabled; List3"
+                    + " numbers will be dominated by conventionHolds");
+        }
+
+        for (int size : SIZES) {
+            if (size <= maxSize) {
+                if (impl.equals("all") || impl.equals("List3")) {
+                    runAll("List3", new Factory() {
+                        @Override
+                        public List<Integer> newList() {
+                            return new List3<Integer>();
+                        }
+                    }, size, seconds);
+                }
+                if (impl.equals("all") || impl.equals("List3p")) {
+                    runAll("List3p", new Factory() {
+                        @Override
+                        public List<Integer> newList() {
+                            return new List3<Integer>(2 * BATCH);
+                        }
+                    }, size, seconds);
+                }
+                if (impl.equals("all") || impl.equals("List4")) {
+                    runAll("List4", new Factory() {
+                        @Override
+                        public List<Integer> newList() {
+                            return new List4<Integer>();
+                        }
+                    }, size, seconds);
+                }
+                if (impl.equals("all") || impl.equals("List5")) {
+                    runAll("List5", new Factory() {
+                        @Override
+                        public List<Integer> newList() {
+                            return new List5<Integer>();
+                        }
+                    }, size, seconds);
+                }
+                if (impl.equals("all") || impl.equals("List1L")) {
+                    runAll("List1L", new Factory() {
+                        @Override
+                        public List<Integer> newList() {
+                            return new List1L<Integer>();
+                        }
+                    }, size, seconds);
+                }
+            }
+        }
+    }
+
+}
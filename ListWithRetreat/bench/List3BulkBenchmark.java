@@ -0,0 +1,209 @@
+import java.util.Locale;
+
+/**
+ * Benchmark for the bulk methods of {@code List3} ({@code addRightFrontAll},
+ * {@code removeRightFront(int)}, {@code advance(int)}, and
+ * {@code retreat(int)}), measured side by side with the loops of kernel calls
+ * they replace.
+ *
+ * <p>
+ * Each round adds a run of {@code run} entries at the cursor, advances over
+ * it, retreats back over it, and removes it again, so the list returns to its
+ * starting value. The harness reports the time per entry for each of the four
+ * steps, once done one entry at a time and once done in bulk.
+ * </p>
+ *
+ * <p>
+ * Run it both without assertion checking, to see the time saved on the calls
+ * themselves, and with {@code -ea} and the default {@code FULL} checking mode,
+ * where every kernel call walks the whole list in {@code conventionHolds} but
+ * each bulk call walks it only once (keep {@code maxRun} small then, since
+ * the loops take time quadratic in the run length). Usage:
+ * </p>
+ *
+ * <pre>
+ * java List3BulkBenchmark [listSize [secondsPerRun [maxRun]]]
+ * </pre>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public final class List3BulkBenchmark {
+
+    /**
+     * Lengths of the runs of entries added and removed in each round.
+     */
+    private static final int[] RUNS = { 16, 256, 4_096, 65_536 };
+
+    /**
+     * Default number of entries in the list besides the run.
+     */
+    private static final int DEFAULT_SIZE = 1_000;
+
+    /**
+     * Default number of seconds spent measuring each run length.
+     */
+    private static final double DEFAULT_SECONDS = 1.0;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Number of steps in a round.
+     */
+    private static final int STEPS = 4;
+
+    /**
+     * Accumulates results of timed calls so the JIT cannot discard them.
+     */
+    private static volatile long sink;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private List3BulkBenchmark() {
+    }
+
+    /**
+     * Runs one round on {@code list} and adds the time spent in each step to
+     * {@code nanos}.
+     *
+     * @param list
+     *            the list, with the cursor where the run goes
+     * @param entries
+     *            the run of entries to add
+     * @param bulk
+     *            whether to use the bulk methods
+     * @param nanos
+     *            time spent so far in adding, advancing, retreating, and
+     *            removing
+     */
+    private static void round(List3<Integer> list, Integer[] entries,
+            boolean bulk, long[] nanos) {
+        int run = entries.length;
+        long t0 = System.nanoTime();
+        if (bulk) {
+            list.addRightFrontAll(entries);
+        } else {
+            for (int i = run - 1; i >= 0; i--) {
+                list.addRightFront(entries[i]);
+            }
+        }
+        long t1 = System.nanoTime();
+        if (bulk) {
+            list.advance(run);
+        } else {
+            for (int i = 0; i < run; i++) {
+                list.advance();
+            }
+        }
+        long t2 = System.nanoTime();
+        if (bulk) {
+            list.retreat(run);
+        } else {
+            for (int i = 0; i < run; i++) {
+                list.retreat();
+            }
+        }
+        long t3 = System.nanoTime();
+        if (bulk) {
+            sink += list.removeRightFront(run).rightLength();
+        } else {
+            for (int i = 0; i < run; i++) {
+                sink += list.removeRightFront();
+            }
+        }
+        long t4 = System.nanoTime();
+        nanos[0] += t1 - t0;
+        nanos[1] += t2 - t1;
+        nanos[2] += t3 - t2;
+        nanos[3] += t4 - t3;
+    }
+
+    /**
+     * Measures rounds with runs of {@code run} entries on a list of
+     * {@code size} other entries for about {@code seconds} seconds and
+     * returns the nanoseconds per entry for each step.
+     *
+     * @param size
+     *            the number of other entries in the list
+     * @param run
+     *            the number of entries in each run
+     * @param bulk
+     *            whether to use the bulk methods
+     * @param seconds
+     *            the number of seconds to measure for
+     * @return nanoseconds per entry spent adding, advancing, retreating, and
+     *         removing
+     */
+    private static double[] measure(int size, int run, boolean bulk,
+            double seconds) {
+        List3<Integer> list = new List3<Integer>();
+        for (int i = 0; i < size; i++) {
+            list.addRightFront(i);
+        }
+        list.moveToPosition(size / 2);
+        Integer[] entries = new Integer[run];
+        for (int i = 0; i < run; i++) {
+            entries[i] = i;
+        }
+        long[] nanos = new long[STEPS];
+        long warmupEnd = System.nanoTime()
+                + (long) (seconds / 2 * NANOS_PER_SECOND);
+        while (System.nanoTime() < warmupEnd) {
+            round(list, entries, bulk, nanos);
+        }
+        nanos = new long[STEPS];
+        long rounds = 0;
+        long end = System.nanoTime() + (long) (seconds * NANOS_PER_SECOND);
+        do {
+            round(list, entries, bulk, nanos);
+            rounds++;
+        } while (System.nanoTime() < end);
+        double[] result = new double[STEPS];
+        for (int i = 0; i < STEPS; i++) {
+            result[i] = (double) nanos[i] / (rounds * run);
+        }
+        return result;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            optional list size, seconds per run, and longest run
+     */
+    public static void main(String[] args) {
+        int size = (args.length > 0) ? Integer.parseInt(args[0])
+                : DEFAULT_SIZE;
+        double seconds = (args.length > 1) ? Double.parseDouble(args[1])
+                : DEFAULT_SECONDS;
+        int maxRun = (args.length > 2) ? Integer.parseInt(args[2])
+                : RUNS[RUNS.length - 1];
+
+        boolean assertionsOn = false;
+        assert assertionsOn = true;
+        if (assertionsOn) {
+            System.err.println("Assertions are enabled; checking mode "
+                    + List3.checkingMode());
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "%-6s %7s %12s %12s %12s %12s", "mode", "run",
+                "add ns/e", "advance ns/e", "retreat ns/e", "remove ns/e"));
+        for (int run : RUNS) {
+            if (run <= maxRun) {
+                for (boolean bulk : new boolean[] { false, true }) {
+                    double[] r = measure(size, run, bulk, seconds);
+                    System.out.println(String.format(Locale.ROOT,
+                            "%-6s %,7d %12.2f %12.2f %12.2f %12.2f",
+                            bulk ? "bulk" : "loop", run, r[0], r[1], r[2],
+                            r[3]));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,277 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Benchmark for round trips of a {@code List3<Integer>} through bytes:
+ * {@code writeTo}/{@code readFrom} with {@code ElementCodec.integers()},
+ * Java serialization of the entries copied into an {@code ArrayList} (plus
+ * the left length), and {@code toString} parsed back into a list. Each round
+ * trip writes the list, reads it back into a second list, and checks that
+ * the two are the same length. For each way the harness reports the time
+ * and the bytes allocated per round trip and the size of the encoding.
+ *
+ * <p>
+ * Run it without assertion checking ({@code -ea}). Usage:
+ * </p>
+ *
+ * <pre>
+ * java -Xmx4g List3CodecBenchmark [maxSize [secondsPerRun]]
+ * </pre>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public final class List3CodecBenchmark {
+
+    /**
+     * List sizes to benchmark.
+     */
+    private static final int[] SIZES = { 100, 10_000, 1_000_000 };
+
+    /**
+     * Default number of seconds spent measuring each run.
+     */
+    private static final double DEFAULT_SECONDS = 1.0;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * Length of the "&gt;,&lt;" between the two strings in {@code toString}.
+     */
+    private static final int SEPARATOR_LENGTH = 3;
+
+    /**
+     * Ways of making the round trip.
+     */
+    private enum Way {
+        /**
+         * {@code writeTo} and {@code readFrom}.
+         */
+        CODEC,
+        /**
+         * Java serialization of an {@code ArrayList} copy.
+         */
+        SERIAL,
+        /**
+         * {@code toString}, parsed back.
+         */
+        STRING
+    }
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private List3CodecBenchmark() {
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread, or
+     * -1 if the JVM does not support allocation measurement.
+     *
+     * @return the bytes allocated by the current thread
+     */
+    private static long allocatedBytes() {
+        long result = -1;
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            result = sunBean
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return result;
+    }
+
+    /**
+     * Writes {@code list} the given way.
+     *
+     * @param way
+     *            the way to write it
+     * @param list
+     *            the list
+     * @return the encoding
+     * @throws IOException
+     *             if writing fails
+     */
+    private static byte[] write(Way way, List3<Integer> list)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        switch (way) {
+            case CODEC:
+                DataOutputStream data = new DataOutputStream(
+                        new BufferedOutputStream(bytes));
+                list.writeTo(data, ElementCodec.integers());
+                data.flush();
+                break;
+            case SERIAL:
+                ArrayList<Integer> copy = new ArrayList<>();
+                for (Integer x : list) {
+                    copy.add(x);
+                }
+                ObjectOutputStream objects = new ObjectOutputStream(bytes);
+                objects.writeInt(list.leftLength());
+                objects.writeObject(copy);
+                objects.flush();
+                break;
+            default:
+                bytes.write(list.toString().getBytes(StandardCharsets.UTF_8));
+                break;
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads {@code bytes}, written the given way, into {@code list}.
+     *
+     * @param way
+     *            the way it was written
+     * @param bytes
+     *            the encoding
+     * @param list
+     *            the list to read into
+     * @throws IOException
+     *             if reading fails
+     */
+    private static void read(Way way, byte[] bytes, List3<Integer> list)
+            throws IOException {
+        switch (way) {
+            case CODEC:
+                list.readFrom(
+                        new DataInputStream(new BufferedInputStream(
+                                new ByteArrayInputStream(bytes))),
+                        ElementCodec.integers());
+                break;
+            case SERIAL:
+                ObjectInputStream objects = new ObjectInputStream(
+                        new ByteArrayInputStream(bytes));
+                int leftLength = objects.readInt();
+                ArrayList<?> copy;
+                try {
+                    copy = (ArrayList<?>) objects.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+                list.clear();
+                for (int i = copy.size() - 1; i >= 0; i--) {
+                    list.addRightFront((Integer) copy.get(i));
+                }
+                list.advance(leftLength);
+                break;
+            default:
+                parse(new String(bytes, StandardCharsets.UTF_8), list);
+                break;
+        }
+    }
+
+    /**
+     * Replaces {@code list} with the list whose {@code toString} is
+     * {@code s}, which has the form "(&lt;a,b&gt;,&lt;c&gt;)".
+     *
+     * @param s
+     *            the string
+     * @param list
+     *            the list
+     */
+    private static void parse(String s, List3<Integer> list) {
+        list.clear();
+        int split = s.indexOf(">,<");
+        String[] parts = { s.substring(2, split),
+                s.substring(split + SEPARATOR_LENGTH, s.length() - 2) };
+        int leftLength = 0;
+        for (int p = 0; p < parts.length; p++) {
+            if (!parts[p].isEmpty()) {
+                for (String entry : parts[p].split(",")) {
+                    list.addRightFront(Integer.valueOf(entry));
+                    list.advance();
+                    if (p == 0) {
+                        leftLength++;
+                    }
+                }
+            }
+        }
+        list.moveToStart();
+        list.advance(leftLength);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            optional maximum list size and seconds per run
+     * @throws IOException
+     *             if a round trip fails
+     */
+    public static void main(String[] args) throws IOException {
+        int maxSize = (args.length > 0) ? Integer.parseInt(args[0])
+                : SIZES[SIZES.length - 1];
+        double seconds = (args.length > 1) ? Double.parseDouble(args[1])
+                : DEFAULT_SECONDS;
+
+        boolean assertionsOn = false;
+        assert assertionsOn = true;
+        if (assertionsOn) {
+            System.err.println("Warning: assertions are enabled; the numbers"
+                    + " will be dominated by conventionHolds");
+        }
+
+        for (int size : SIZES) {
+            if (size <= maxSize) {
+                List3<Integer> list = new List3<Integer>();
+                for (int i = 0; i < size; i++) {
+                    list.addRightFront(i);
+                }
+                list.advance(size / 2);
+                List3<Integer> copy = new List3<Integer>();
+                for (Way way : Way.values()) {
+                    long budget = (long) (seconds * NANOS_PER_SECOND);
+                    long warmupEnd = System.nanoTime() + budget / 2;
+                    while (System.nanoTime() < warmupEnd) {
+                        read(way, write(way, list), copy);
+                    }
+                    long rounds = 0;
+                    long encoded = 0;
+                    long bytesBefore = allocatedBytes();
+                    long start = System.nanoTime();
+                    long elapsed;
+                    do {
+                        byte[] bytes = write(way, list);
+                        read(way, bytes, copy);
+                        if (copy.leftLength() != list.leftLength()
+                                || copy.rightLength() != list.rightLength()) {
+                            throw new IllegalStateException(way + " failed");
+                        }
+                        encoded = bytes.length;
+                        rounds++;
+                        elapsed = System.nanoTime() - start;
+                    } while (elapsed < budget);
+                    long allocated = allocatedBytes() - bytesBefore;
+                    System.out.println(String.format(Locale.ROOT,
+                            "%-6s %,10d entries %,12.3f ms/trip %,16.0f B/trip"
+                                    + " %,12d B encoded",
+                            way, size, elapsed / NANOS_PER_MILLI / rounds,
+                            (double) allocated / rounds, encoded));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+import java.util.Locale;
+
+/**
+ * Microbenchmark for {@code List3.newInstance}, measured side by side with
+ * the reflective {@code getClass().getConstructor().newInstance()} it
+ * replaced, for a {@code List3} and for a subclass of {@code List3}.
+ *
+ * <p>
+ * Run it without assertion checking ({@code -ea}). Usage:
+ * </p>
+ *
+ * <pre>
+ * java List3NewInstanceBenchmark [secondsPerRun]
+ * </pre>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public final class List3NewInstanceBenchmark {
+
+    /**
+     * Default number of seconds spent measuring each run.
+     */
+    private static final double DEFAULT_SECONDS = 1.0;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Number of instances made between two reads of the clock.
+     */
+    private static final int BATCH = 1_024;
+
+    /**
+     * Accumulates results of timed calls so the JIT cannot discard them.
+     */
+    private static volatile long sink;
+
+    /**
+     * Subclass of {@code List3}, to measure the path for subclasses.
+     *
+     * @param <T>
+     *            type of {@code List} entries
+     */
+    public static final class SubList3<T> extends List3<T> {
+
+        /**
+         * No-argument constructor.
+         */
+        public SubList3() {
+            super();
+        }
+
+    }
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private List3NewInstanceBenchmark() {
+    }
+
+    /**
+     * Makes a new instance of the dynamic type of {@code list} through
+     * reflection, the way {@code newInstance} used to.
+     *
+     * @param list
+     *            the list
+     * @return the new instance
+     */
+    private static List3<?> reflective(List3<?> list) {
+        try {
+            return list.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + list.getClass());
+        }
+    }
+
+    /**
+     * Makes instances from {@code list} for about {@code seconds} seconds
+     * and returns the number made per second.
+     *
+     * @param list
+     *            the list to call on
+     * @param useReflection
+     *            whether to use reflection rather than {@code newInstance}
+     * @param seconds
+     *            the number of seconds to measure for
+     * @return instances per second
+     */
+    private static double measure(List3<Integer> list, boolean useReflection,
+            double seconds) {
+        long budget = (long) (seconds * NANOS_PER_SECOND);
+        long warmupEnd = System.nanoTime() + budget / 2;
+        while (System.nanoTime() < warmupEnd) {
+            sink += make(list, useReflection);
+        }
+        long count = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink += make(list, useReflection);
+            count += BATCH;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < budget);
+        return count / (elapsed / NANOS_PER_SECOND);
+    }
+
+    /**
+     * Makes BATCH instances from {@code list}.
+     *
+     * @param list
+     *            the list to call on
+     * @param useReflection
+     *            whether to use reflection rather than {@code newInstance}
+     * @return a value computed from the instances, for the sink
+     */
+    private static long make(List3<Integer> list, boolean useReflection) {
+        long result = 0;
+        for (int i = 0; i < BATCH; i++) {
+            List3<?> made = useReflection ? reflective(list)
+                    : list.newInstance();
+            result += made.rightLength();
+        }
+        return result;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            optional seconds per run
+     */
+    public static void main(String[] args) {
+        double seconds = (args.length > 0) ? Double.parseDouble(args[0])
+                : DEFAULT_SECONDS;
+
+        boolean assertionsOn = false;
+        assert assertionsOn = true;
+        if (assertionsOn) {
+            System.err.println("Warning: assertions are enabled; the numbers"
+                    + " will be dominated by conventionHolds");
+        }
+
+        List3<Integer> plain = new List3<Integer>();
+        List3<Integer> sub = new SubList3<Integer>();
+        String[] names = { "List3", "SubList3" };
+        List3<?>[] lists = { plain, sub };
+        for (int i = 0; i < lists.length; i++) {
+            @SuppressWarnings("unchecked")
+            List3<Integer> list = (List3<Integer>) lists[i];
+            double reflection = measure(list, true, seconds);
+            double cached = measure(list, false, seconds);
+            System.out.println(String.format(Locale.ROOT,
+                    "%-9s reflection %,14.0f /s  newInstance %,14.0f /s"
+                            + "  (x%.1f)",
+                    names[i], reflection, cached, cached / reflection));
+        }
+    }
+
+}
@@ -0,0 +1,622 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * Thread-safe {@code List} built on a {@code List3}, for lists that one or a
+ * few threads edit while many threads read.
+ *
+ * <p>
+ * Every method that changes {@code this} takes the write lock of a
+ * {@code StampedLock} and then calls the matching {@code List3} method. The
+ * lengths of this.left and this.right are mirrored in fields written under
+ * that lock, so {@code leftLength} and {@code rightLength} read them with an
+ * optimistic read: no lock is taken and, unless a writer got in between, the
+ * read costs a volatile read and a fence. {@code rightFront},
+ * {@code toString}, {@code hashCode}, and {@code equals} read the
+ * {@code List3} under the read lock, without changing it, so readers do not
+ * block one another.
+ * </p>
+ *
+ * <p>
+ * {@code iterator} iterates over a copy of the entries, so an iteration holds
+ * no lock and later changes do not show up in an iteration already under way.
+ * The copy is made, in linear time, by the first reader that needs it, under
+ * the read lock, and kept until the entries change; moving the cursor does not
+ * drop it. Iterations started in between take no lock at all, and the writer
+ * never pays for them: a change only drops the copy.
+ * </p>
+ *
+ * <p>
+ * Every {@code List} method, including the secondary methods
+ * {@code ListSecondary} would otherwise implement with several kernel calls,
+ * and {@code moveToPosition}, runs entirely under the lock, so each is
+ * atomic. A sequence of calls is not: a thread that needs several calls to
+ * see the same list (say {@code rightLength} and then
+ * {@code removeRightFront}) must arrange that itself.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * [$this.list is not null]  and
+ * $this.leftLength = |$this.list.left|  and
+ * $this.rightLength = |$this.list.right|  and
+ * [$this.entries is null or holds the entries of
+ *  $this.list.left * $this.list.right, in order]
+ * </pre>
+ * @correspondence <pre>
+ * this = $this.list
+ * </pre>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public class ConcurrentList3<T> extends ListSecondary<T> {
+
+    /**
+     * No-argument constructor of each subclass of {@code ConcurrentList3}
+     * that {@code newInstance} has been called on, looked up once per class.
+     */
+    private static final ConstructorCache CONSTRUCTORS = new ConstructorCache(
+            ConcurrentList3.class);
+
+    /**
+     * Source of the numbers that order the locking of two lists.
+     */
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    /**
+     * Number unique to this list, fixing the order in which the locks of two
+     * lists are taken.
+     */
+    private final long id = NEXT_ID.getAndIncrement();
+
+    /**
+     * The entries, guarded by this.lock.
+     */
+    private List3<T> list;
+
+    /**
+     * Length of this.left, written only under the write lock.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right, written only under the write lock.
+     */
+    private int rightLength;
+
+    /**
+     * Copy of the entries of this.list made since they last changed, or null;
+     * dropped under the write lock, made under the read lock, and read
+     * without a lock.
+     */
+    private volatile Object[] entries;
+
+    /**
+     * Lock guarding all the fields above.
+     */
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation. The caller must hold the write lock.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * [$this.list is not null]  and
+     * $this.leftLength = |$this.list.left|  and
+     * $this.rightLength = |$this.list.right|
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.list != null : "Violation of: $this.list is not null";
+        assert this.leftLength == this.list.leftLength() : ""
+                + "Violation of: $this.leftLength = |$this.list.left|";
+        assert this.rightLength == this.list.rightLength() : ""
+                + "Violation of: $this.rightLength = |$this.list.right|";
+
+        return true;
+    }
+
+    /**
+     * Takes the write lock for a change to the entries, dropping the copy of
+     * them that the change would leave out of date. Methods that only move the
+     * cursor take the write lock directly and keep the copy.
+     *
+     * @return the stamp of the write lock
+     */
+    private long editLock() {
+        long stamp = this.lock.writeLock();
+        if (this.entries != null) {
+            this.entries = null;
+        }
+        return stamp;
+    }
+
+    /**
+     * Returns the entries of this.list in order: the cached copy if they have
+     * not changed since it was made, or else a new copy, which is cached. The
+     * caller must hold the read or the write lock; readers holding the read
+     * lock together may each make a copy, but the copies are the same.
+     *
+     * @return the entries
+     */
+    private Object[] entries() {
+        Object[] result = this.entries;
+        if (result == null) {
+            result = new Object[this.leftLength + this.rightLength];
+            int i = 0;
+            for (T x : this.list) {
+                result[i] = x;
+                i++;
+            }
+            this.entries = result;
+        }
+        return result;
+    }
+
+    /**
+     * Orders this and {@code other} by id, so that every method locking two
+     * lists locks them in the same order and none can deadlock with another.
+     *
+     * @param other
+     *            the other list
+     * @return whether this is to be locked first
+     * @requires other is not this
+     */
+    private boolean locksBefore(ConcurrentList3<?> other) {
+        return this.id < other.id;
+    }
+
+    /**
+     * Copies the lengths of $this.list into the mirrored length fields. The
+     * caller must hold the write lock.
+     */
+    private void updateLengths() {
+        this.leftLength = this.list.leftLength();
+        this.rightLength = this.list.rightLength();
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.list = new List3<T>();
+        this.leftLength = 0;
+        this.rightLength = 0;
+        this.entries = null;
+
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public ConcurrentList3() {
+
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * As in {@code List3}, the constructor of a subclass is looked up once
+     * per class and called through a method handle.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public final ConcurrentList3<T> newInstance() {
+        if (this.getClass() == ConcurrentList3.class) {
+            return new ConcurrentList3<T>();
+        }
+        try {
+            return (ConcurrentList3<T>) CONSTRUCTORS.get(this.getClass())
+                    .invokeExact();
+        } catch (Throwable e) {
+            //the constructor's own exceptions are reported as reflection did
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass(), e);
+        }
+    }
+
+    @Override
+    public final void clear() {
+        long stamp = this.editLock();
+        try {
+            this.createNewRep();
+            assert this.conventionHolds();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof ConcurrentList3<?> : ""
+                + "Violation of: source is of dynamic type ConcurrentList3<?>";
+        assert source != this : "Violation of: source is not this";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * ConcurrentList3<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        ConcurrentList3<T> localSource = (ConcurrentList3<T>) source;
+
+        boolean thisFirst = this.locksBefore(localSource);
+        StampedLock first = thisFirst ? this.lock : localSource.lock;
+        StampedLock second = thisFirst ? localSource.lock : this.lock;
+        long firstStamp = first.writeLock();
+        try {
+            long secondStamp = second.writeLock();
+            try {
+                this.list = localSource.list;
+                this.updateLengths();
+                this.entries = localSource.entries;
+                localSource.createNewRep();
+                assert this.conventionHolds();
+                assert localSource.conventionHolds();
+            } finally {
+                second.unlockWrite(secondStamp);
+            }
+        } finally {
+            first.unlockWrite(firstStamp);
+        }
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        long stamp = this.editLock();
+        try {
+            this.list.addRightFront(x);
+            this.rightLength++;
+            assert this.conventionHolds();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public final T removeRightFront() {
+        long stamp = this.editLock();
+        try {
+            assert this.rightLength > 0 : "Violation of: this.right /= <>";
+
+            T x = this.list.removeRightFront();
+            this.rightLength--;
+            assert this.conventionHolds();
+            return x;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public final void advance() {
+        long stamp = this.lock.writeLock();
+        try {
+            assert this.rightLength > 0 : "Violation of: this.right /= <>";
+
+            this.list.advance();
+            this.leftLength++;
+            this.rightLength--;
+            assert this.conventionHolds();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public final void moveToStart() {
+        long stamp = this.lock.writeLock();
+        try {
+            this.list.moveToStart();
+            this.updateLengths();
+            assert this.conventionHolds();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public final int leftLength() {
+        long stamp = this.lock.tryOptimisticRead();
+        int result = this.leftLength;
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                result = this.leftLength;
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public final int rightLength() {
+        long stamp = this.lock.tryOptimisticRead();
+        int result = this.rightLength;
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                result = this.rightLength;
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        long stamp = this.lock.tryOptimisticRead();
+        Object[] copy = this.entries;
+        if (copy == null || !this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                copy = this.entries();
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+        return new EntryIterator<T>(copy);
+    }
+
+    /**
+     * Read-only {@code Iterator} over a copy of the entries.
+     *
+     * @param <T>
+     *            type of the entries
+     */
+    private static final class EntryIterator<T> implements Iterator<T> {
+
+        /**
+         * The entries, not changed while this exists.
+         */
+        private final Object[] entries;
+
+        /**
+         * Index of the next entry to return.
+         */
+        private int next;
+
+        /**
+         * Constructor.
+         *
+         * @param entries
+         *            the entries, all of type T
+         */
+        private EntryIterator(Object[] entries) {
+            this.entries = entries;
+            this.next = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next < this.entries.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            //the entries were copied from a List<T>
+            T x = (T) this.entries[this.next];
+            this.next++;
+            return x;
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final T rightFront() {
+        long stamp = this.lock.readLock();
+        try {
+            assert this.rightLength > 0 : "Violation of: this.right /= <>";
+
+            //entry does not change the list, unlike List3.rightFront
+            return this.list.entry(this.leftLength);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public final T replaceRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        long stamp = this.editLock();
+        try {
+            assert this.rightLength > 0 : "Violation of: this.right /= <>";
+
+            return this.list.replaceRightFront(x);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public final void moveToFinish() {
+        long stamp = this.lock.writeLock();
+        try {
+            this.list.moveToFinish();
+            this.updateLengths();
+            assert this.conventionHolds();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public final void retreat() {
+        long stamp = this.lock.writeLock();
+        try {
+            assert this.leftLength > 0 : "Violation of: this.left /= <>";
+
+            this.list.retreat();
+            this.leftLength--;
+            this.rightLength++;
+            assert this.conventionHolds();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public final void flip() {
+        long stamp = this.editLock();
+        try {
+            this.list.flip();
+            this.updateLengths();
+            assert this.conventionHolds();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public final void append(List<T> list) {
+        assert list != null : "Violation of: list is not null";
+        assert list != this : "Violation of: list is not this";
+
+        if (list instanceof ConcurrentList3<?>) {
+            ConcurrentList3<T> source = (ConcurrentList3<T>) list;
+            boolean thisFirst = this.locksBefore(source);
+            StampedLock first = thisFirst ? this.lock : source.lock;
+            StampedLock second = thisFirst ? source.lock : this.lock;
+            long firstStamp = first.writeLock();
+            try {
+                long secondStamp = second.writeLock();
+                try {
+                    this.entries = null;
+                    source.entries = null;
+                    this.list.append(source.list);
+                    this.updateLengths();
+                    source.updateLengths();
+                    assert this.conventionHolds();
+                    assert source.conventionHolds();
+                } finally {
+                    second.unlockWrite(secondStamp);
+                }
+            } finally {
+                first.unlockWrite(firstStamp);
+            }
+        } else {
+            long stamp = this.editLock();
+            try {
+                this.list.append(list);
+                this.updateLengths();
+                assert this.conventionHolds();
+            } finally {
+                this.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Moves the cursor so that {@code this.left} has {@code position}
+     * entries, as {@code List3.moveToPosition} does, under the write lock.
+     *
+     * @param position
+     *            the new length of {@code this.left}
+     * @updates this
+     * @requires 0 <= position <= |this.left| + |this.right|
+     * @ensures this.left * this.right = #this.left * #this.right and
+     *          |this.left| = position
+     */
+    public final void moveToPosition(int position) {
+        long stamp = this.lock.writeLock();
+        try {
+            assert 0 <= position
+                    && position <= this.leftLength + this.rightLength : ""
+                            + "Violation of: 0 <= position <= |this.left| +"
+                            + " |this.right|";
+
+            this.list.moveToPosition(position);
+            this.updateLengths();
+            assert this.conventionHolds();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public final String toString() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.list.toString();
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public final int hashCode() {
+        long stamp = this.lock.readLock();
+        try {
+            //List3.hashCode would write its cache, which readers must not do
+            return this.list.computeHashCode();
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof ConcurrentList3<?>) {
+            /*
+             * Reads the other list and then this one, never holding both
+             * locks, so that two threads comparing the same two lists in
+             * opposite orders cannot deadlock
+             */
+            ConcurrentList3<?> other = (ConcurrentList3<?>) obj;
+            Object[] otherEntries;
+            int otherLeftLength;
+            long stamp = other.lock.readLock();
+            try {
+                otherEntries = other.entries();
+                otherLeftLength = other.leftLength;
+            } finally {
+                other.lock.unlockRead(stamp);
+            }
+            stamp = this.lock.readLock();
+            try {
+                return this.leftLength == otherLeftLength
+                        && Arrays.equals(this.entries(), otherEntries);
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+        long stamp = this.lock.readLock();
+        try {
+            return this.list.equals(obj);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+}
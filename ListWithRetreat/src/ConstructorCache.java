@@ -0,0 +1,43 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Per-class cache of the public no-argument constructors of subclasses of a
+ * base class, as method handles returning the base class, so that
+ * {@code newInstance} does no reflection after the first call on each
+ * subclass. Used by {@code List3} and {@code ConcurrentList3}.
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+final class ConstructorCache extends ClassValue<MethodHandle> {
+
+    /**
+     * The base class, which the method handles return.
+     */
+    private final Class<?> base;
+
+    /**
+     * Constructor.
+     *
+     * @param base
+     *            the base class
+     */
+    ConstructorCache(Class<?> base) {
+        this.base = base;
+    }
+
+    @Override
+    protected MethodHandle computeValue(Class<?> type) {
+        try {
+            return MethodHandles.lookup()
+                    .unreflectConstructor(type.getConstructor())
+                    .asType(MethodType.methodType(this.base));
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError("Cannot construct object of type " + type,
+                    e);
+        }
+    }
+
+}
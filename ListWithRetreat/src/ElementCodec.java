@@ -0,0 +1,116 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of one type of {@code List} entry, used by
+ * {@code List3.writeTo} and {@code List3.readFrom}. Implementations for
+ * {@code String}, {@code Integer}, and {@code Long} entries are provided by
+ * the static methods below; other entry types supply their own.
+ *
+ * @param <T>
+ *            type of the entries encoded
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * Writes the encoding of {@code x} to {@code out}.
+     *
+     * @param out
+     *            the output
+     * @param x
+     *            the entry to write
+     * @throws IOException
+     *             if writing to out fails
+     * @requires x is not null
+     * @ensures [the encoding of x is written to out]
+     */
+    void write(DataOutput out, T x) throws IOException;
+
+    /**
+     * Reads the encoding of one entry from {@code in}.
+     *
+     * @param in
+     *            the input
+     * @return the entry read
+     * @throws IOException
+     *             if reading from in fails or what is read is not an encoding
+     *             written by {@code write}
+     * @ensures [read is not null and is the entry whose encoding was read]
+     */
+    T read(DataInput in) throws IOException;
+
+    /**
+     * Returns a codec for {@code String} entries, which writes the length of
+     * the UTF-8 encoding of each string followed by that encoding (so, unlike
+     * {@code DataOutput.writeUTF}, strings of any length can be written).
+     *
+     * @return the codec
+     */
+    static ElementCodec<String> strings() {
+        return new ElementCodec<String>() {
+            @Override
+            public void write(DataOutput out, String x) throws IOException {
+                byte[] bytes = x.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("Negative string length " + length);
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Returns a codec for {@code Integer} entries, which writes each one in
+     * four bytes.
+     *
+     * @return the codec
+     */
+    static ElementCodec<Integer> integers() {
+        return new ElementCodec<Integer>() {
+            @Override
+            public void write(DataOutput out, Integer x) throws IOException {
+                out.writeInt(x);
+            }
+
+            @Override
+            public Integer read(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+    }
+
+    /**
+     * Returns a codec for {@code Long} entries, which writes each one in eight
+     * bytes.
+     *
+     * @return the codec
+     */
+    static ElementCodec<Long> longs() {
+        return new ElementCodec<Long>() {
+            @Override
+            public void write(DataOutput out, Long x) throws IOException {
+                out.writeLong(x);
+            }
+
+            @Override
+            public Long read(DataInput in) throws IOException {
+                return in.readLong();
+            }
+        };
+    }
+
+}
@@ -1,5 +1,18 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import components.list.List;
 import components.list.ListSecondary;
@@ -9,7 +22,20 @@ import components.list.ListSecondary;
  * implementations of primary methods and {@code retreat} secondary method.
  *
  * <p>
- * Execution-time performance of all methods implemented in this class is O(1).
+ * Execution-time performance of the kernel methods, {@code retreat},
+ * {@code moveToFinish}, {@code flip}, {@code transferFrom}, and
+ * {@code hashCode} is O(1), except as the position index, extra cursors, and
+ * snapshots add to it; the documentation of each method gives its cost.
+ * </p>
+ *
+ * <p>
+ * {@code reversed} says whether the list is read along the next links or
+ * along the previous links, so that {@code flip} need not relink the nodes.
+ * In the convention and correspondence below, after(n) is n.next and
+ * before(n) is n.previous when $this.reversed is false, and the other way
+ * around when it is true. Besides the doubly linked list, {@code this} can
+ * hold a pool of unused nodes, a skip list indexing the positions of the
+ * nodes, and the extra cursors made by {@code newCursor}.
  * </p>
  *
  * @param <T>
@@ -21,21 +47,33 @@ import components.list.ListSecondary;
  * [$this.lastLeft is not null]  and
  * [$this.postFinish is not null]  and
  * [$this.preStart points to the first node of a doubly linked list
- *  containing ($this.leftLength + $this.rightLength + 2) nodes]  and
+ *  (following after) containing ($this.leftLength + $this.rightLength + 2)
+ *  nodes]  and
  * [$this.lastLeft points to the ($this.leftLength + 1)-th node in
  *  that doubly linked list]  and
  * [$this.postFinish points to the last node in that doubly linked list]  and
  * [for every node n in the doubly linked list of nodes, except the one
- *  pointed to by $this.preStart, n.previous.next = n]  and
+ *  pointed to by $this.preStart, after(before(n)) = n]  and
  * [for every node n in the doubly linked list of nodes, except the one
- *  pointed to by $this.postFinish, n.next.previous = n]
+ *  pointed to by $this.postFinish, before(after(n)) = n]  and
+ * 0 <= $this.poolSize <= $this.poolCapacity  and
+ * [$this.pool points to the first node of a singly linked list (through
+ *  next) containing $this.poolSize nodes, none of which is in the doubly
+ *  linked list of nodes, and all of whose data are null]  and
+ * [$this.indexHead is null, or it is the head of a skip list of
+ *  $this.indexLevels levels in which, at every level, the towers are in the
+ *  order of their nodes in the doubly linked list and each span is the number
+ *  of nodes from a tower's node to the next tower's node]  and
+ * [for every open cursor c in $this.cursors[0, $this.cursorCount),
+ *  0 <= c.leftLength <= $this.leftLength + $this.rightLength and c.lastLeft
+ *  points to the (c.leftLength + 1)-th node in that doubly linked list]
  * </pre>
  * @correspondence <pre>
  * this =
- *  ([data in nodes starting at $this.preStart.next and running through
+ *  ([data in nodes starting at after($this.preStart) and running through
  *    $this.lastLeft],
- *   [data in nodes starting at $this.lastLeft.next and running through
- *    $this.postFinish.previous])
+ *   [data in nodes starting at after($this.lastLeft) and running through
+ *    before($this.postFinish)])
  * </pre>
  *
  * @author Layan Abdallah & Oak Hodous
@@ -44,43 +82,163 @@ import components.list.ListSecondary;
 public class List3<T> extends ListSecondary<T> {
 
     /**
-     * Node class for doubly linked list nodes.
+     * How much of the convention is checked when assertions are on.
+     */
+    public enum CheckingMode {
+        /**
+         * Check the whole convention on every call.
+         */
+        FULL,
+        /**
+         * Check around the cursor on every call, and the whole convention on
+         * a share of calls that shrinks as the list grows.
+         */
+        SAMPLED,
+        /**
+         * Check only the lengths and the links around the cursor and the two
+         * "smart" nodes.
+         */
+        LOCAL
+    }
+
+    /**
+     * Node class for doubly linked list nodes. Package-private, with its
+     * fields, so that {@code List3Sort}, {@code List3Spliterator}, and
+     * {@code List3Codec} can work on the nodes.
+     *
+     * @param <T>
+     *            type of the data in the node
      */
-    private final class Node {
+    static final class Node<T> {
 
         /**
          * Data in node, or, if this is a "smart" Node, irrelevant.
          */
-        private T data;
+        T data;
 
         /**
          * Next node in doubly linked list, or, if this is a trailing "smart"
          * Node, irrelevant.
          */
-        private Node next;
+        Node<T> next;
 
         /**
          * Previous node in doubly linked list, or, if this is a leading "smart"
          * Node, irrelevant.
          */
-        private Node previous;
+        Node<T> previous;
+
+    }
+
+    /**
+     * Tower of the position index, standing over one node of the doubly
+     * linked list (or, for the head tower, over this.preStart).
+     */
+    private final class Tower {
+
+        /**
+         * Node under this tower, or, if this is the head tower, irrelevant.
+         */
+        private final Node<T> node;
+
+        /**
+         * Next tower at each level, or null if there is none.
+         */
+        private final Tower[] forward;
+
+        /**
+         * Number of nodes from this tower's node to the next tower's node at
+         * each level; irrelevant where there is no next tower.
+         */
+        private final int[] span;
+
+        /**
+         * Constructor.
+         *
+         * @param node
+         *            the node under the tower
+         * @param height
+         *            the number of levels of the tower
+         */
+        private Tower(Node<T> node, int height) {
+            this.node = node;
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            Tower[] towers = new List3.Tower[height];
+            this.forward = towers;
+            this.span = new int[height];
+        }
 
     }
 
+    /**
+     * Maximum number of levels of the position index.
+     */
+    private static final int MAX_INDEX_LEVELS = 16;
+
+    /**
+     * Expected number of nodes walked per level of the position index.
+     */
+    private static final int INDEX_STEPS_PER_LEVEL = 4;
+
+    /**
+     * Fewest calls between two full checks of the convention in
+     * {@code SAMPLED} mode.
+     */
+    private static final int SAMPLE_INTERVAL = 64;
+
+    /**
+     * Length of the "(&lt;", "&gt;,&lt;", and "&gt;)" in {@code toString}.
+     */
+    private static final int STRING_OVERHEAD = 7;
+
+    /**
+     * Number of entries {@code hashCode} reads, as in
+     * {@code ListSecondary.hashCode}.
+     */
+    private static final int HASH_SAMPLES = 2;
+
+    /**
+     * First multiplier of {@code ListSecondary.hashCode}.
+     */
+    private static final int HASH_A = 37;
+
+    /**
+     * Second multiplier of {@code ListSecondary.hashCode}.
+     */
+    private static final int HASH_B = 17;
+
+    /**
+     * No-argument constructor of each subclass of {@code List3} that
+     * {@code newInstance} has been called on, looked up once per class.
+     */
+    private static final ConstructorCache CONSTRUCTORS = new ConstructorCache(
+            List3.class);
+
+    /**
+     * How much of the convention is checked, for all {@code List3}s.
+     */
+    private static volatile CheckingMode checkingMode = initialCheckingMode();
+
     /**
      * "Smart node" before start node of doubly linked list.
      */
-    private Node preStart;
+    private Node<T> preStart;
 
     /**
      * Last node of doubly linked list in this.left.
      */
-    private Node lastLeft;
+    private Node<T> lastLeft;
 
     /**
      * "Smart node" after finish node of linked list.
      */
-    private Node postFinish;
+    private Node<T> postFinish;
+
+    /**
+     * Whether the list runs from this.preStart to this.postFinish along the
+     * previous links (true) rather than the next links (false).
+     */
+    private boolean reversed;
 
     /**
      * Length of this.left.
@@ -92,6 +250,226 @@ public class List3<T> extends ListSecondary<T> {
      */
     private int rightLength;
 
+    /**
+     * Maximum number of unused nodes kept in the pool; 0 disables pooling.
+     */
+    private int poolCapacity;
+
+    /**
+     * First unused node available for reuse, or null if the pool is empty.
+     */
+    private Node<T> pool;
+
+    /**
+     * Number of unused nodes in the pool.
+     */
+    private int poolSize;
+
+    /**
+     * Head tower of the position index, or null if the index is off.
+     */
+    private Tower indexHead;
+
+    /**
+     * Number of levels of the position index in use.
+     */
+    private int indexLevels;
+
+    /**
+     * Scratch space for index updates: the last tower before the node being
+     * inserted or removed at each level.
+     */
+    private Tower[] indexUpdate;
+
+    /**
+     * Scratch space for index updates: the position of each tower in
+     * this.indexUpdate.
+     */
+    private int[] indexUpdateRank;
+
+    /**
+     * State of the random number generator for tower heights.
+     */
+    private int indexSeed;
+
+    /**
+     * Number of structural changes made to this, so that iterators can detect
+     * changes made other than through them.
+     */
+    private int modCount;
+
+    /**
+     * Whether snapshots share the nodes of the doubly linked list, which then
+     * must be copied before any of them is changed.
+     */
+    private boolean shared;
+
+    /**
+     * Open extra cursors, in this.cursors[0, this.cursorCount), or null if
+     * none has been made.
+     */
+    private Cursor[] cursors;
+
+    /**
+     * Number of open extra cursors.
+     */
+    private int cursorCount;
+
+    /**
+     * Number of convention checks since the last full one, for
+     * {@code SAMPLED} mode.
+     */
+    private int checksSinceFull;
+
+    /**
+     * Number of {@code advance} and {@code retreat} calls since the cursor
+     * run last ended, kept only when {@code List3Metrics.ENABLED}.
+     */
+    private int travel;
+
+    /**
+     * Whether this.hashCache holds the hash code of this as it was when
+     * this.modCount was this.hashModCount and this.leftLength was
+     * this.hashLeftLength.
+     */
+    private boolean hashValid;
+
+    /**
+     * Cached hash code, if this.hashValid.
+     */
+    private int hashCache;
+
+    /**
+     * Value of this.modCount when this.hashCache was computed.
+     */
+    private int hashModCount;
+
+    /**
+     * Value of this.leftLength when this.hashCache was computed.
+     */
+    private int hashLeftLength;
+
+    /**
+     * Returns the checking mode named by the {@code List3.checkingMode}
+     * system property, or {@code FULL} if it is not set or names no mode.
+     *
+     * @return the initial checking mode
+     */
+    private static CheckingMode initialCheckingMode() {
+        CheckingMode mode = CheckingMode.FULL;
+        String name = System.getProperty("List3.checkingMode");
+        if (name != null) {
+            for (CheckingMode m : CheckingMode.values()) {
+                if (m.name().equalsIgnoreCase(name.trim())) {
+                    mode = m;
+                }
+            }
+        }
+        return mode;
+    }
+
+    /**
+     * Sets how much of the convention every {@code List3} checks when
+     * assertions are on. Checking all of it walks the whole list, which makes
+     * a loop over the list quadratic: {@code FULL} checks everything every
+     * time, {@code LOCAL} checks only the lengths and the links around
+     * this.preStart, this.lastLeft, and this.postFinish, and {@code SAMPLED}
+     * does the local checks every time and the full check on one call in
+     * max(SAMPLE_INTERVAL, |this|), which keeps the amortized cost constant.
+     * The initial mode is named by the {@code List3.checkingMode} system
+     * property.
+     *
+     * @param mode
+     *            the new checking mode
+     * @requires mode is not null
+     * @ensures checkingMode = mode
+     */
+    public static void setCheckingMode(CheckingMode mode) {
+        assert mode != null : "Violation of: mode is not null";
+
+        checkingMode = mode;
+    }
+
+    /**
+     * Reports how much of the convention every {@code List3} checks when
+     * assertions are on.
+     *
+     * @return the checking mode
+     */
+    public static CheckingMode checkingMode() {
+        return checkingMode;
+    }
+
+    /**
+     * Checks that the convention holds for the current representation, as
+     * far as the checking mode asks.
+     *
+     * @return true if the checked part of the convention holds (or if
+     *         assertion checking is off); otherwise reports a violated
+     *         assertion
+     */
+    private boolean conventionHolds() {
+        CheckingMode mode = checkingMode;
+        boolean full = mode == CheckingMode.FULL;
+        if (mode == CheckingMode.SAMPLED) {
+            this.checksSinceFull++;
+            if (this.checksSinceFull >= Math.max(SAMPLE_INTERVAL,
+                    this.leftLength + this.rightLength)) {
+                this.checksSinceFull = 0;
+                full = true;
+            }
+        }
+        return full ? this.fullConventionHolds()
+                : this.localConventionHolds();
+    }
+
+    /**
+     * Checks that the part of the convention about the lengths and about the
+     * nodes next to this.preStart, this.lastLeft, and this.postFinish holds
+     * for the current representation, in constant time.
+     *
+     * @return true if the convention holds there (or if assertion checking is
+     *         off); otherwise reports a violated assertion
+     */
+    private boolean localConventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.preStart != null : "Violation of: $this.preStart is not null";
+        assert this.lastLeft != null : "Violation of: $this.lastLeft is not null";
+        assert this.postFinish != null : "Violation of: $this.postFinish is not null";
+        assert 0 <= this.poolSize && this.poolSize <= this.poolCapacity : ""
+                + "Violation of: 0 <= $this.poolSize <= $this.poolCapacity";
+
+        Node<T> afterStart = this.after(this.preStart);
+        Node<T> afterLastLeft = this.after(this.lastLeft);
+        Node<T> beforeFinish = this.before(this.postFinish);
+        assert afterStart != null
+                && this.before(afterStart) == this.preStart : ""
+                        + "Violation of: [for every node n in the doubly linked"
+                        + " list of nodes, except the one pointed to by"
+                        + " $this.postFinish, before(after(n)) = n]";
+        assert afterLastLeft != null
+                && this.before(afterLastLeft) == this.lastLeft : ""
+                        + "Violation of: [for every node n in the doubly linked"
+                        + " list of nodes, except the one pointed to by"
+                        + " $this.postFinish, before(after(n)) = n]";
+        assert beforeFinish != null
+                && this.after(beforeFinish) == this.postFinish : ""
+                        + "Violation of: [for every node n in the doubly linked"
+                        + " list of nodes, except the one pointed to by"
+                        + " $this.preStart, after(before(n)) = n]";
+        assert (this.leftLength == 0) == (this.lastLeft == this.preStart) : ""
+                + "Violation of: [$this.lastLeft points to the"
+                + " ($this.leftLength + 1)-th node in that doubly linked list]";
+        assert (this.rightLength == 0)
+                == (afterLastLeft == this.postFinish) : ""
+                        + "Violation of: [$this.lastLeft points to the"
+                        + " ($this.leftLength + 1)-th node in that doubly"
+                        + " linked list]";
+
+        return true;
+    }
+
     /**
      * Checks that the part of the convention repeated below holds for the
      * current representation.
@@ -105,26 +483,38 @@ public class List3<T> extends ListSecondary<T> {
      * [$this.lastLeft is not null]  and
      * [$this.postFinish is not null]  and
      * [$this.preStart points to the first node of a doubly linked list
-     *  containing ($this.leftLength + $this.rightLength + 2) nodes]  and
+     *  (following after) containing ($this.leftLength + $this.rightLength +
+     *  2) nodes]  and
      * [$this.lastLeft points to the ($this.leftLength + 1)-th node in
      *  that doubly linked list]  and
      * [$this.postFinish points to the last node in that doubly linked list]  and
      * [for every node n in the doubly linked list of nodes, except the one
-     *  pointed to by $this.preStart, n.previous.next = n]  and
+     *  pointed to by $this.preStart, after(before(n)) = n]  and
      * [for every node n in the doubly linked list of nodes, except the one
-     *  pointed to by $this.postFinish, n.next.previous = n]
+     *  pointed to by $this.postFinish, before(after(n)) = n]  and
+     * 0 <= $this.poolSize <= $this.poolCapacity  and
+     * [$this.indexHead is null, or it is the head of a skip list of
+     *  $this.indexLevels levels in which, at every level, the towers are in
+     *  the order of their nodes in the doubly linked list and each span is
+     *  the number of nodes from a tower's node to the next tower's node]  and
+     * [for every open cursor c in $this.cursors[0, $this.cursorCount),
+     *  0 <= c.leftLength <= $this.leftLength + $this.rightLength and
+     *  c.lastLeft points to the (c.leftLength + 1)-th node in that doubly
+     *  linked list]
      * </pre>
      */
-    private boolean conventionHolds() {
+    private boolean fullConventionHolds() {
         assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
         assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
         assert this.preStart != null : "Violation of: $this.preStart is not null";
         assert this.lastLeft != null : "Violation of: $this.lastLeft is not null";
         assert this.postFinish != null : "Violation of: $this.postFinish is not null";
+        assert 0 <= this.poolSize && this.poolSize <= this.poolCapacity : ""
+                + "Violation of: 0 <= $this.poolSize <= $this.poolCapacity";
 
         int count = 0;
         boolean lastLeftFound = false;
-        Node n = this.preStart;
+        Node<T> n = this.preStart;
         while ((count < this.leftLength + this.rightLength + 1)
                 && (n != this.postFinish)) {
             count++;
@@ -140,21 +530,22 @@ public class List3<T> extends ListSecondary<T> {
             }
             /*
              * Check for every node n in the doubly linked list of nodes, except
-             * the one pointed to by $this.postFinish, n.next.previous = n
+             * the one pointed to by $this.postFinish, before(after(n)) = n
              */
-            assert (n.next != null) && (n.next.previous == n) : ""
-                    + "Violation of: [for every node n in the doubly linked"
-                    + " list of nodes, except the one pointed to by"
-                    + " $this.postFinish, n.next.previous = n]";
-            n = n.next;
+            assert (this.after(n) != null)
+                    && (this.before(this.after(n)) == n) : ""
+                            + "Violation of: [for every node n in the doubly"
+                            + " linked list of nodes, except the one pointed"
+                            + " to by $this.postFinish, before(after(n)) = n]";
+            n = this.after(n);
             /*
              * Check for every node n in the doubly linked list of nodes, except
-             * the one pointed to by $this.preStart, n.previous.next = n
+             * the one pointed to by $this.preStart, after(before(n)) = n
              */
-            assert n.previous.next == n : ""
+            assert this.after(this.before(n)) == n : ""
                     + "Violation of: [for every node n in the doubly linked"
                     + " list of nodes, except the one pointed to by"
-                    + " $this.preStart, n.previous.next = n]";
+                    + " $this.preStart, after(before(n)) = n]";
         }
         count++;
         assert count == this.leftLength + this.rightLength + 2 : ""
@@ -167,102 +558,873 @@ public class List3<T> extends ListSecondary<T> {
         assert n == this.postFinish : ""
                 + "Violation of: [$this.postFinish points to the last"
                 + " node in that doubly linked list]";
+        assert (this.indexHead == null) || this.indexIsConsistent() : ""
+                + "Violation of: [$this.indexHead is null, or it is the head of"
+                + " a skip list of $this.indexLevels levels in which, at every"
+                + " level, the towers are in the order of their nodes in the"
+                + " doubly linked list and each span is the number of nodes"
+                + " from a tower's node to the next tower's node]";
+        for (int i = 0; i < this.cursorCount; i++) {
+            Cursor c = this.cursors[i];
+            assert 0 <= c.leftLength
+                    && c.leftLength <= this.leftLength + this.rightLength
+                    && this.nodeAt(c.leftLength) == c.lastLeft : ""
+                            + "Violation of: [for every open cursor c, c.lastLeft"
+                            + " points to the (c.leftLength + 1)-th node in"
+                            + " that doubly linked list]";
+        }
 
         return true;
     }
 
     /**
-     * Creator of initial representation.
+     * Returns the node after {@code n} in the doubly linked list.
+     *
+     * @param n
+     *            the node
+     * @return after(n)
      */
-    private void createNewRep() {
+    Node<T> after(Node<T> n) {
+        return this.reversed ? n.previous : n.next;
+    }
 
-        this.preStart = new Node();
-        this.lastLeft = this.preStart;
-        this.postFinish = new Node();
-        this.preStart.next = this.postFinish;
-        this.postFinish.previous = this.preStart;
-        this.leftLength = 0;
-        this.rightLength = 0;
+    /**
+     * Returns the node before {@code n} in the doubly linked list.
+     *
+     * @param n
+     *            the node
+     * @return before(n)
+     */
+    private Node<T> before(Node<T> n) {
+        return this.reversed ? n.next : n.previous;
+    }
 
+    /**
+     * Links {@code a} and {@code b} so that {@code b} comes right after
+     * {@code a} in the doubly linked list.
+     *
+     * @param a
+     *            the earlier node
+     * @param b
+     *            the later node
+     * @ensures after(a) = b and before(b) = a
+     */
+    private void link(Node<T> a, Node<T> b) {
+        if (this.reversed) {
+            a.previous = b;
+            b.next = a;
+        } else {
+            a.next = b;
+            b.previous = a;
+        }
     }
 
     /**
-     * No-argument constructor.
+     * Swaps the next and previous links of every node in the doubly linked
+     * list, if needed, so that it is read in the direction given by
+     * {@code reversed}. The entries of {@code this} do not change.
+     *
+     * @param reversed
+     *            the new value of this.reversed
+     * @ensures $this.reversed = reversed
      */
-    public List3() {
+    private void orient(boolean reversed) {
+        if (this.reversed != reversed) {
+            this.unshare();
+            Node<T> n = this.preStart;
+            while (n != null) {
+                Node<T> next = this.after(n);
+                Node<T> temp = n.next;
+                n.next = n.previous;
+                n.previous = temp;
+                n = (n == this.postFinish) ? null : next;
+            }
+            this.reversed = reversed;
+        }
+    }
 
-        this.createNewRep();
+    /**
+     * Replaces the doubly linked list with a copy of it, if snapshots share
+     * it, so that it can be changed without changing them. Iterators made
+     * before the copy can no longer be used.
+     *
+     * @updates this.preStart, this.lastLeft, this.postFinish, this.shared
+     * @ensures [the nodes of the doubly linked list are not shared]
+     */
+    private void unshare() {
+        if (this.shared) {
+            Node<T> oldLastLeft = this.lastLeft;
+            Node<T> oldFinish = this.postFinish;
+            Node<T> start = this.newNode(null);
+            Node<T> lastLeft = start;
+            Node<T> last = start;
+            Node<T> n = this.after(this.preStart);
+            while (n != oldFinish) {
+                Node<T> copy = this.newNode(n.data);
+                this.link(last, copy);
+                if (n == oldLastLeft) {
+                    lastLeft = copy;
+                }
+                last = copy;
+                n = this.after(n);
+            }
+            Node<T> finish = this.newNode(null);
+            this.link(last, finish);
+            this.preStart = start;
+            this.lastLeft = lastLeft;
+            this.postFinish = finish;
+            this.shared = false;
+            this.rebuildIndex();
+            for (int i = 0; i < this.cursorCount; i++) {
+                Cursor c = this.cursors[i];
+                c.lastLeft = this.nodeAt(c.leftLength);
+            }
+            this.modCount++;
+        }
+    }
 
-        assert this.conventionHolds();
+    /**
+     * Returns a random tower height h, 0 <= h <= MAX_INDEX_LEVELS, where
+     * h >= k with probability 1/4^k.
+     *
+     * @return the height
+     * @updates this.indexSeed
+     */
+    private int randomHeight() {
+        //xorshift step; two trailing zero bits per level
+        int x = this.indexSeed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        this.indexSeed = x;
+        return Math.min(Integer.numberOfTrailingZeros(x) / 2,
+                MAX_INDEX_LEVELS);
     }
 
+    /**
+     * Rebuilds the position index, if it is on, from the doubly linked list.
+     *
+     * @updates this.indexHead, this.indexLevels
+     */
     @SuppressWarnings("unchecked")
-    @Override
-    public final List3<T> newInstance() {
-        try {
-            return this.getClass().getConstructor().newInstance();
-        } catch (ReflectiveOperationException e) {
-            throw new AssertionError(
-                    "Cannot construct object of type " + this.getClass());
+    private void rebuildIndex() {
+        if (this.indexHead != null) {
+            this.indexHead = new Tower(null, MAX_INDEX_LEVELS);
+            this.indexLevels = 0;
+            Tower[] last = this.indexUpdate;
+            int[] lastRank = this.indexUpdateRank;
+            for (int i = 0; i < MAX_INDEX_LEVELS; i++) {
+                last[i] = this.indexHead;
+                lastRank[i] = 0;
+            }
+            int length = this.leftLength + this.rightLength;
+            Node<T> n = this.preStart;
+            for (int rank = 1; rank <= length; rank++) {
+                n = this.after(n);
+                int height = this.randomHeight();
+                if (height > 0) {
+                    Tower t = new Tower(n, height);
+                    for (int i = 0; i < height; i++) {
+                        last[i].forward[i] = t;
+                        last[i].span[i] = rank - lastRank[i];
+                        last[i] = t;
+                        lastRank[i] = rank;
+                    }
+                    this.indexLevels = Math.max(this.indexLevels, height);
+                }
+            }
+            for (int i = 0; i < MAX_INDEX_LEVELS; i++) {
+                last[i] = null;
+            }
         }
     }
 
-    @Override
-    public final void clear() {
-        this.createNewRep();
-        assert this.conventionHolds();
+    /**
+     * Returns the node at {@code rank} in the doubly linked list, where
+     * this.preStart is at rank 0, using the position index.
+     *
+     * @param rank
+     *            the rank of the node
+     * @return the node
+     * @requires [the index is on] and 0 <= rank <= |this.left| + |this.right|
+     */
+    Node<T> indexNodeAt(int rank) {
+        Tower x = this.indexHead;
+        int r = 0;
+        for (int i = this.indexLevels - 1; i >= 0; i--) {
+            while (x.forward[i] != null && r + x.span[i] <= rank) {
+                r += x.span[i];
+                x = x.forward[i];
+            }
+        }
+        Node<T> n = (x == this.indexHead) ? this.preStart : x.node;
+        for (; r < rank; r++) {
+            n = this.after(n);
+        }
+        return n;
     }
 
-    @Override
-    public final void transferFrom(List<T> source) {
-        assert source instanceof List3<?> : ""
-                + "Violation of: source is of dynamic type List3<?>";
-        /*
-         * This cast cannot fail since the assert above would have stopped
-         * execution in that case: source must be of dynamic type List3<?>, and
-         * the ? must be T or the call would not have compiled.
-         */
-        List3<T> localSource = (List3<T>) source;
-        this.preStart = localSource.preStart;
-        this.lastLeft = localSource.lastLeft;
-        this.postFinish = localSource.postFinish;
-        this.leftLength = localSource.leftLength;
-        this.rightLength = localSource.rightLength;
-        localSource.createNewRep();
-        assert this.conventionHolds();
-        assert localSource.conventionHolds();
+    /**
+     * Records in this.indexUpdate and this.indexUpdateRank the last tower
+     * whose node comes before {@code rank}, at each level in use.
+     *
+     * @param rank
+     *            the rank
+     * @requires [the index is on] and rank >= 1
+     */
+    private void indexFindBefore(int rank) {
+        Tower x = this.indexHead;
+        int r = 0;
+        for (int i = this.indexLevels - 1; i >= 0; i--) {
+            while (x.forward[i] != null && r + x.span[i] < rank) {
+                r += x.span[i];
+                x = x.forward[i];
+            }
+            this.indexUpdate[i] = x;
+            this.indexUpdateRank[i] = r;
+        }
     }
 
-    @Override
-    public final void addRightFront(T x) {
-        assert x != null : "Violation of: x is not null";
-
-        //creates new node and insert it at the front of the right list
-        Node newNode = new Node();
-        newNode.data = x;
-        Node temp = this.lastLeft;
-        newNode.next = temp.next;
-        newNode.previous = temp;
-        temp.next.previous = newNode;
-        temp.next = newNode;
-        this.rightLength++;
-
-        assert this.conventionHolds();
+    /**
+     * Updates the position index for {@code n}, which has just been linked
+     * in at {@code rank}.
+     *
+     * @param rank
+     *            the rank of the new node
+     * @param n
+     *            the new node
+     * @requires [the index is on and was consistent before n was linked in]
+     */
+    private void indexInserted(int rank, Node<T> n) {
+        this.indexFindBefore(rank);
+        int height = this.randomHeight();
+        for (int i = this.indexLevels; i < height; i++) {
+            this.indexUpdate[i] = this.indexHead;
+            this.indexUpdateRank[i] = 0;
+        }
+        this.indexLevels = Math.max(this.indexLevels, height);
+        Tower t = (height > 0) ? new Tower(n, height) : null;
+        for (int i = 0; i < this.indexLevels; i++) {
+            Tower u = this.indexUpdate[i];
+            if (i < height) {
+                //splits the span of u around the new tower
+                t.forward[i] = u.forward[i];
+                t.span[i] = this.indexUpdateRank[i] + u.span[i] + 1 - rank;
+                u.forward[i] = t;
+                u.span[i] = rank - this.indexUpdateRank[i];
+            } else if (u.forward[i] != null) {
+                u.span[i]++;
+            }
+            this.indexUpdate[i] = null;
+        }
     }
 
-    @Override
-    public final T removeRightFront() {
-        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+    /**
+     * Updates the position index for the node at {@code rank}, which is about
+     * to be (or has just been) unlinked.
+     *
+     * @param rank
+     *            the rank of the node
+     * @requires [the index is on]
+     */
+    private void indexRemoved(int rank) {
+        this.indexFindBefore(rank);
+        for (int i = 0; i < this.indexLevels; i++) {
+            Tower u = this.indexUpdate[i];
+            Tower f = u.forward[i];
+            if (f != null) {
+                if (this.indexUpdateRank[i] + u.span[i] == rank) {
+                    //f stands over the node being removed
+                    u.forward[i] = f.forward[i];
+                    u.span[i] += f.span[i] - 1;
+                } else {
+                    u.span[i]--;
+                }
+            }
+            this.indexUpdate[i] = null;
+        }
+        while (this.indexLevels > 0
+                && this.indexHead.forward[this.indexLevels - 1] == null) {
+            this.indexLevels--;
+        }
+    }
 
-        //removes front node of the right list and returns its data
-        Node lastLeft = this.lastLeft;
-        Node newNext = lastLeft.next;
+    /**
+     * Reports whether the position index is consistent with the doubly
+     * linked list.
+     *
+     * @return true if every level of the index lists towers in order with
+     *         the right spans
+     * @requires [the index is on]
+     */
+    private boolean indexIsConsistent() {
+        Map<Node<T>, Integer> ranks = new IdentityHashMap<>();
+        Node<T> n = this.preStart;
+        int length = this.leftLength + this.rightLength;
+        for (int rank = 1; rank <= length; rank++) {
+            n = this.after(n);
+            ranks.put(n, rank);
+        }
+        boolean consistent = true;
+        for (int i = 0; i < MAX_INDEX_LEVELS; i++) {
+            Tower x = this.indexHead;
+            int r = 0;
+            while (consistent && x.forward[i] != null) {
+                Integer next = ranks.get(x.forward[i].node);
+                consistent = (i < this.indexLevels) && next != null
+                        && next == r + x.span[i];
+                x = x.forward[i];
+                r = (next == null) ? r : next;
+            }
+        }
+        return consistent;
+    }
+
+    /**
+     * Returns the node at {@code rank} in the doubly linked list, where
+     * this.preStart is at rank 0, walking from whichever of this.preStart,
+     * this.lastLeft, and this.postFinish is closest, or through the position
+     * index when that is expected to be shorter.
+     *
+     * @param rank
+     *            the rank of the node
+     * @return the node
+     * @requires 0 <= rank <= |this.left| + |this.right| + 1
+     */
+    private Node<T> nodeAt(int rank) {
+        int length = this.leftLength + this.rightLength;
+
+        /*
+         * this.lastLeft is at rank |this.left| and this.postFinish is at rank
+         * length + 1
+         */
+        int fromStart = rank;
+        int fromCursor = Math.abs(rank - this.leftLength);
+        int fromFinish = length + 1 - rank;
+        int shortest = Math.min(fromCursor, Math.min(fromStart, fromFinish));
+        Node<T> n;
+        if (this.indexHead != null && rank <= length
+                && shortest > INDEX_STEPS_PER_LEVEL * (this.indexLevels + 1)) {
+            n = this.indexNodeAt(rank);
+        } else if (fromCursor == shortest) {
+            n = this.lastLeft;
+            for (int i = this.leftLength; i < rank; i++) {
+                n = this.after(n);
+            }
+            for (int i = this.leftLength; i > rank; i--) {
+                n = this.before(n);
+            }
+        } else if (fromStart == shortest) {
+            n = this.preStart;
+            for (int i = 0; i < fromStart; i++) {
+                n = this.after(n);
+            }
+        } else {
+            n = this.postFinish;
+            for (int i = 0; i < fromFinish; i++) {
+                n = this.before(n);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns a node holding {@code x}, reusing one from the pool if there is
+     * one.
+     *
+     * @param x
+     *            the data for the node
+     * @return the node, with next and previous not yet set
+     * @updates this.pool, this.poolSize
+     */
+    Node<T> newNode(T x) {
+        Node<T> n = this.pool;
+        if (n == null) {
+            n = new Node<T>();
+        } else {
+            this.pool = n.next;
+            this.poolSize--;
+            n.next = null;
+        }
+        n.data = x;
+        return n;
+    }
+
+    /**
+     * Returns {@code n}, which is no longer in the doubly linked list, to the
+     * pool if there is room for it; otherwise leaves it for the garbage
+     * collector.
+     *
+     * @param n
+     *            the unused node
+     * @updates this.pool, this.poolSize
+     */
+    private void recycle(Node<T> n) {
+        if (this.poolSize < this.poolCapacity) {
+            n.data = null;
+            n.previous = null;
+            n.next = this.pool;
+            this.pool = n;
+            this.poolSize++;
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.preStart = this.newNode(null);
+        this.lastLeft = this.preStart;
+        this.postFinish = this.newNode(null);
+        this.reversed = false;
+        this.shared = false;
+        this.link(this.preStart, this.postFinish);
+        this.leftLength = 0;
+        this.rightLength = 0;
+        this.rebuildIndex();
+        this.moveCursorsToStart();
+        this.modCount++;
+
+    }
+
+    /**
+     * Unlinks all the nodes between this.preStart and this.postFinish, which
+     * are kept, so that this = (<>, <>). The nodes unlinked are not changed.
+     *
+     * @clears this
+     */
+    private void detachAll() {
+
+        this.link(this.preStart, this.postFinish);
+        this.lastLeft = this.preStart;
+        this.leftLength = 0;
+        this.rightLength = 0;
+        this.rebuildIndex();
+        this.moveCursorsToStart();
+        this.modCount++;
+
+    }
+
+    /**
+     * Moves every extra cursor to the start of the list.
+     */
+    private void moveCursorsToStart() {
+        for (int i = 0; i < this.cursorCount; i++) {
+            this.cursors[i].lastLeft = this.preStart;
+            this.cursors[i].leftLength = 0;
+        }
+    }
+
+    /**
+     * Moves every extra cursor whose left length is {@code from} or more by
+     * {@code by} places, without walking: the cursors keep their nodes.
+     *
+     * @param from
+     *            the smallest left length of a cursor to move
+     * @param by
+     *            the change in left length
+     */
+    private void shiftCursors(int from, int by) {
+        for (int i = 0; i < this.cursorCount; i++) {
+            if (this.cursors[i].leftLength >= from) {
+                this.cursors[i].leftLength += by;
+            }
+        }
+    }
+
+    /**
+     * Counts a call of {@code op} and ends the current cursor run. Called
+     * only when {@code List3Metrics.ENABLED}.
+     *
+     * @param op
+     *            the method called
+     * @updates this.travel
+     * @ensures this.travel = 0
+     */
+    private void recordEndOfRun(List3Metrics.Operation op) {
+        List3Metrics.record(op);
+        List3Metrics.recordTravel(this.travel);
+        this.travel = 0;
+    }
+
+    /**
+     * Counts a call of {@code op}, which moves the cursor {@code places}
+     * places. Called only when {@code List3Metrics.ENABLED}.
+     *
+     * @param op
+     *            the method called
+     * @param places
+     *            the number of places moved
+     * @updates this.travel
+     * @ensures this.travel = #this.travel + places
+     */
+    private void recordMove(List3Metrics.Operation op, int places) {
+        List3Metrics.record(op);
+        this.travel += places;
+    }
+
+    /**
+     * Inserts a new node holding {@code x} just after {@code pred}, at
+     * {@code rank}. The new entry goes into this.left if it comes before
+     * this.lastLeft and into this.right otherwise, and likewise for the extra
+     * cursors.
+     *
+     * @param pred
+     *            the node to insert after
+     * @param rank
+     *            the rank of the new node, one more than that of pred
+     * @param x
+     *            the data for the new node
+     * @requires <pre>
+     * [pred is in the doubly linked list of nodes and is not
+     *  this.postFinish]  and
+     * [rank is one more than the rank of pred]
+     * </pre>
+     */
+    private void insertAfter(Node<T> pred, int rank, T x) {
+        Node<T> n = this.newNode(x);
+        this.link(n, this.after(pred));
+        this.link(pred, n);
+        if (rank <= this.leftLength) {
+            this.leftLength++;
+        } else {
+            this.rightLength++;
+        }
+        for (int i = 0; i < this.cursorCount; i++) {
+            Cursor c = this.cursors[i];
+            if (rank <= c.leftLength) {
+                c.leftLength++;
+            }
+        }
+        if (this.indexHead != null) {
+            this.indexInserted(rank, n);
+        }
+        this.modCount++;
+    }
+
+    /**
+     * Unlinks {@code n}, which is at {@code rank}, and returns its data. If n
+     * is this.lastLeft the cursor moves back one node, and likewise for the
+     * extra cursors.
+     *
+     * @param n
+     *            the node to unlink
+     * @param rank
+     *            the rank of n
+     * @return the data in n
+     * @requires <pre>
+     * [n is in the doubly linked list of nodes and is neither this.preStart
+     *  nor this.postFinish]  and
+     * [rank is the rank of n]
+     * </pre>
+     */
+    private T unlink(Node<T> n, int rank) {
+        Node<T> pred = this.before(n);
+        this.link(pred, this.after(n));
+        if (rank <= this.leftLength) {
+            if (n == this.lastLeft) {
+                this.lastLeft = pred;
+            }
+            this.leftLength--;
+        } else {
+            this.rightLength--;
+        }
+        for (int i = 0; i < this.cursorCount; i++) {
+            Cursor c = this.cursors[i];
+            if (rank <= c.leftLength) {
+                if (n == c.lastLeft) {
+                    c.lastLeft = pred;
+                }
+                c.leftLength--;
+            }
+        }
+        if (this.indexHead != null) {
+            this.indexRemoved(rank);
+        }
+        this.modCount++;
+        T x = n.data;
+        this.recycle(n);
+        return x;
+    }
+
+    /**
+     * Links the chain of nodes from {@code first} through {@code last}
+     * (following after) into the doubly linked list just after {@code pred}.
+     *
+     * @param pred
+     *            the node after which to link the chain
+     * @param first
+     *            the first node of the chain
+     * @param last
+     *            the last node of the chain
+     * @requires <pre>
+     * [pred is in the doubly linked list of nodes and is not
+     *  this.postFinish]  and
+     * [first through last is a doubly linked chain of nodes none of which
+     *  is in the doubly linked list of nodes]
+     * </pre>
+     */
+    private void linkChainAfter(Node<T> pred, Node<T> first, Node<T> last) {
+        Node<T> succ = this.after(pred);
+        this.link(pred, first);
+        this.link(last, succ);
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List3() {
+
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor that turns on node pooling.
+     *
+     * @param nodePoolCapacity
+     *            the maximum number of unused nodes to keep for reuse
+     * @requires nodePoolCapacity >= 0
+     */
+    public List3(int nodePoolCapacity) {
+        assert nodePoolCapacity >= 0 : "Violation of: nodePoolCapacity >= 0";
+
+        this.poolCapacity = nodePoolCapacity;
+        this.createNewRep();
 
-        lastLeft.next = newNext.next;
-        lastLeft = newNext.previous;
-        lastLeft.next.previous = lastLeft;
-        T temp = newNext.data;
-        this.rightLength -= 1;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Links nodes holding the entries of {@code entries}, in iteration order,
+     * in between this.preStart and this.postFinish in one forward pass,
+     * placing this.lastLeft after the first {@code leftLength} of them on the
+     * way.
+     *
+     * @param entries
+     *            the entries
+     * @param leftLength
+     *            the length of the new this.left
+     * @replaces this
+     * @requires <pre>
+     * this = (<>, <>)  and  [no entry of entries is null]  and
+     * 0 <= leftLength <= [the number of entries of entries]
+     * </pre>
+     * @ensures this = ([the first leftLength entries of entries],
+     *          [the remaining entries of entries])
+     */
+    private void linkFromStart(Iterable<? extends T> entries,
+            int leftLength) {
+        Node<T> last = this.preStart;
+        int length = 0;
+        for (T x : entries) {
+            assert x != null : ""
+                    + "Violation of: [no entry of entries is null]";
+            Node<T> n = this.newNode(x);
+            this.link(last, n);
+            length++;
+            if (length == leftLength) {
+                this.lastLeft = n;
+            }
+            last = n;
+        }
+        this.link(last, this.postFinish);
+        assert leftLength <= length : ""
+                + "Violation of: leftLength <= |entries|";
+        this.leftLength = leftLength;
+        this.rightLength = length - leftLength;
+    }
+
+    /**
+     * Returns a new {@code List3} holding {@code entries}, with the cursor at
+     * the start, built in one pass over the entries.
+     *
+     * @param <T>
+     *            type of {@code List} entries
+     * @param entries
+     *            the entries
+     * @return the new list
+     * @requires entries is not null and [no entry of entries is null]
+     * @ensures of = (<>, <entries[0], ..., entries[|entries|-1]>)
+     */
+    @SafeVarargs
+    public static <T> List3<T> of(T... entries) {
+        assert entries != null : "Violation of: entries is not null";
+
+        /*
+         * Reads entries itself rather than passing it on to linkFromStart, so
+         * the varargs array never leaves this method
+         */
+        List3<T> result = new List3<T>();
+        Node<T> last = result.preStart;
+        for (T x : entries) {
+            assert x != null : ""
+                    + "Violation of: [no entry of entries is null]";
+            Node<T> n = result.newNode(x);
+            result.link(last, n);
+            last = n;
+        }
+        result.link(last, result.postFinish);
+        result.rightLength = entries.length;
+
+        assert result.conventionHolds();
+        return result;
+    }
+
+    /**
+     * Returns a new {@code List3} holding the entries of {@code entries}, in
+     * iteration order, with the first {@code leftLength} of them in
+     * {@code this.left}. The nodes are linked and the cursor placed in one
+     * pass over the entries.
+     *
+     * @param <T>
+     *            type of {@code List} entries
+     * @param entries
+     *            the entries
+     * @param leftLength
+     *            the length of the left string of the new list
+     * @return the new list
+     * @requires <pre>
+     * entries is not null  and  [no entry of entries is null]  and
+     * 0 <= leftLength <= |entries|
+     * </pre>
+     * @ensures from = ([the first leftLength entries of entries],
+     *          [the remaining entries of entries])
+     */
+    public static <T> List3<T> from(Collection<? extends T> entries,
+            int leftLength) {
+        assert entries != null : "Violation of: entries is not null";
+        assert 0 <= leftLength && leftLength <= entries.size() : ""
+                + "Violation of: 0 <= leftLength <= |entries|";
+
+        List3<T> result = new List3<T>();
+        result.linkFromStart(entries, leftLength);
+
+        assert result.conventionHolds();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * For a {@code List3} this calls the constructor directly; for a subclass
+     * it calls the subclass's public no-argument constructor through a method
+     * handle looked up the first time {@code newInstance} is called on that
+     * subclass, so no reflection is done per call.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List3<T> newInstance() {
+        if (this.getClass() == List3.class) {
+            return new List3<T>();
+        }
+        try {
+            return (List3<T>) CONSTRUCTORS.get(this.getClass()).invokeExact();
+        } catch (Throwable e) {
+            //the constructor's own exceptions are reported as reflection did
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass(), e);
+        }
+    }
+
+    /**
+     * Hands the nodes of the doubly linked list to the pool while it has room,
+     * unless snapshots still use them, and then creates a new empty
+     * representation. Used by {@code clear} and {@code readFrom}.
+     *
+     * @clears this
+     */
+    private void releaseRep() {
+        Node<T> n = this.shared ? null : this.preStart;
+        while (n != null && this.poolSize < this.poolCapacity) {
+            Node<T> next = (n == this.postFinish) ? null : this.after(n);
+            this.recycle(n);
+            n = next;
+        }
+        this.createNewRep();
+    }
+
+    @Override
+    public final void clear() {
+        if (List3Metrics.ENABLED) {
+            this.recordEndOfRun(List3Metrics.Operation.CLEAR);
+        }
+
+        this.releaseRep();
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List3<?> : ""
+                + "Violation of: source is of dynamic type List3<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List3<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List3<T> localSource = (List3<T>) source;
+        List3Metrics.TransferEvent event = null;
+        if (List3Metrics.ENABLED) {
+            List3Metrics.record(List3Metrics.Operation.TRANSFER_FROM);
+            event = new List3Metrics.TransferEvent();
+            event.begin();
+        }
+        this.preStart = localSource.preStart;
+        this.lastLeft = localSource.lastLeft;
+        this.postFinish = localSource.postFinish;
+        this.reversed = localSource.reversed;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        if (this.indexHead != null && localSource.indexHead != null) {
+            this.indexHead = localSource.indexHead;
+            this.indexLevels = localSource.indexLevels;
+        } else {
+            this.rebuildIndex();
+        }
+        this.shared = localSource.shared;
+        this.moveCursorsToStart();
+        this.modCount++;
+        localSource.createNewRep();
+        if (event != null) {
+            event.length = this.leftLength + this.rightLength;
+            event.commit();
+        }
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (List3Metrics.ENABLED) {
+            this.recordEndOfRun(List3Metrics.Operation.ADD_RIGHT_FRONT);
+        }
+
+        //creates new node and insert it at the front of the right list
+        this.unshare();
+        this.insertAfter(this.lastLeft, this.leftLength + 1, x);
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        if (List3Metrics.ENABLED) {
+            this.recordEndOfRun(List3Metrics.Operation.REMOVE_RIGHT_FRONT);
+        }
+
+        //removes front node of the right list and returns its data
+        this.unshare();
+        T temp = this.unlink(this.after(this.lastLeft), this.leftLength + 1);
         assert this.conventionHolds();
         return temp;
 
@@ -272,9 +1434,13 @@ public class List3<T> extends ListSecondary<T> {
     public final void advance() {
         assert this.rightLength() > 0 : "Violation of: this.right /= <>";
 
+        if (List3Metrics.ENABLED) {
+            this.recordMove(List3Metrics.Operation.ADVANCE, 1);
+        }
+
         //moves the last left pointer to the next node
-        Node x = this.lastLeft;
-        this.lastLeft = x.next;
+        Node<T> x = this.lastLeft;
+        this.lastLeft = this.after(x);
         this.leftLength += 1;
         this.rightLength -= 1;
 
@@ -284,6 +1450,10 @@ public class List3<T> extends ListSecondary<T> {
     @Override
     public final void moveToStart() {
 
+        if (List3Metrics.ENABLED) {
+            this.recordEndOfRun(List3Metrics.Operation.MOVE_TO_START);
+        }
+
         //moves the last left pointer to the prestart node
         this.lastLeft = this.preStart;
         this.rightLength += this.leftLength;
@@ -310,6 +1480,9 @@ public class List3<T> extends ListSecondary<T> {
     @Override
     public final Iterator<T> iterator() {
         assert this.conventionHolds();
+        if (List3Metrics.ENABLED) {
+            List3Metrics.record(List3Metrics.Operation.ITERATOR);
+        }
         return new List3Iterator();
     }
 
@@ -321,19 +1494,43 @@ public class List3<T> extends ListSecondary<T> {
         /**
          * Current node in the linked list.
          */
-        private Node current;
+        private Node<T> current;
+
+        /**
+         * Value of List3.this.modCount when this iterator was made.
+         */
+        private final int expectedModCount;
+
+        /**
+         * JFR event for this iteration, or null if none is being recorded.
+         */
+        private List3Metrics.IterationEvent event;
 
         /**
          * No-argument constructor.
          */
         private List3Iterator() {
-            this.current = List3.this.preStart.next;
+            this.current = List3.this.after(List3.this.preStart);
+            this.expectedModCount = List3.this.modCount;
+            if (List3Metrics.ENABLED) {
+                int length = List3.this.leftLength + List3.this.rightLength;
+                if (length >= List3Metrics.ITERATION_EVENT_THRESHOLD) {
+                    this.event = new List3Metrics.IterationEvent();
+                    this.event.length = length;
+                    this.event.begin();
+                }
+            }
             assert List3.this.conventionHolds();
         }
 
         @Override
         public boolean hasNext() {
-            return this.current != List3.this.postFinish;
+            boolean result = this.current != List3.this.postFinish;
+            if (!result && this.event != null) {
+                this.event.commit();
+                this.event = null;
+            }
+            return result;
         }
 
         @Override
@@ -347,8 +1544,11 @@ public class List3<T> extends ListSecondary<T> {
                  */
                 throw new NoSuchElementException();
             }
+            if (List3.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
             T x = this.current.data;
-            this.current = this.current.next;
+            this.current = List3.this.after(this.current);
             assert List3.this.conventionHolds();
             return x;
         }
@@ -361,31 +1561,1715 @@ public class List3<T> extends ListSecondary<T> {
 
     }
 
-    /*
-     * Other methods (overridden for performance reasons) ---------------------
+    /**
+     * Returns a {@code ListIterator} over {@code this.left * this.right},
+     * starting before its first entry. It moves in both directions and can
+     * add, remove, and replace entries in constant time (plus the index
+     * upkeep, if the index is on). Adding or removing entries through it
+     * keeps the cursor between the same two entries. It fails fast: once
+     * {@code this} is structurally changed other than through it, its next
+     * call throws {@code ConcurrentModificationException}.
+     *
+     * @return the list iterator
      */
+    public final ListIterator<T> listIterator() {
+        return this.listIterator(0);
+    }
 
-    @Override
-    public final void moveToFinish() {
-
-        //moves the last left pointer to the post finish node
-        this.lastLeft = this.postFinish.previous;
-        this.leftLength += this.rightLength;
-        this.rightLength = 0;
-
+    /**
+     * Returns a {@code ListIterator} over {@code this.left * this.right},
+     * starting before the entry at {@code position}.
+     *
+     * @param position
+     *            the index of the first entry {@code next} returns
+     * @return the list iterator
+     * @requires 0 <= position <= |this.left| + |this.right|
+     */
+    public final ListIterator<T> listIterator(int position) {
+        assert 0 <= position
+                && position <= this.leftLength + this.rightLength : ""
+                        + "Violation of: 0 <= position <= |this.left| +"
+                        + " |this.right|";
         assert this.conventionHolds();
+        return new List3ListIterator(position);
     }
 
-    @Override
-    public final void retreat() {
+    /**
+     * Implementation of {@code ListIterator} interface for {@code List3}.
+     */
+    private final class List3ListIterator implements ListIterator<T> {
+
+        /**
+         * Node whose data {@code next} returns, or List3.this.postFinish at
+         * the end.
+         */
+        private Node<T> next;
+
+        /**
+         * Index of the entry in {@code next}.
+         */
+        private int nextIndex;
+
+        /**
+         * Node whose data {@code next} or {@code previous} returned last, or
+         * null if it has been removed or an entry has been added since.
+         */
+        private Node<T> lastReturned;
+
+        /**
+         * Value of List3.this.modCount after the last change made through
+         * this iterator.
+         */
+        private int expectedModCount;
+
+        /**
+         * Constructor.
+         *
+         * @param position
+         *            the index of the first entry {@code next} returns
+         */
+        private List3ListIterator(int position) {
+            this.next = List3.this.nodeAt(position + 1);
+            this.nextIndex = position;
+            this.expectedModCount = List3.this.modCount;
+        }
+
+        /**
+         * Throws {@code ConcurrentModificationException} if List3.this has
+         * been structurally changed other than through this iterator.
+         */
+        private void checkForComodification() {
+            if (List3.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        /**
+         * Makes List3.this copy its nodes if snapshots share them, and moves
+         * this iterator over to the copies.
+         */
+        private void unshare() {
+            if (List3.this.shared) {
+                boolean lastWasNext = this.lastReturned != null
+                        && this.lastReturned != this.next;
+                boolean lastWasPrevious = this.lastReturned == this.next;
+                List3.this.unshare();
+                this.next = List3.this.nodeAt(this.nextIndex + 1);
+                if (lastWasNext) {
+                    this.lastReturned = List3.this.before(this.next);
+                } else if (lastWasPrevious) {
+                    this.lastReturned = this.next;
+                }
+                this.expectedModCount = List3.this.modCount;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextIndex < List3.this.leftLength
+                    + List3.this.rightLength;
+        }
+
+        @Override
+        public T next() {
+            this.checkForComodification();
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.lastReturned = this.next;
+            this.next = List3.this.after(this.next);
+            this.nextIndex++;
+            return this.lastReturned.data;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return this.nextIndex > 0;
+        }
+
+        @Override
+        public T previous() {
+            this.checkForComodification();
+            if (!this.hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            this.next = List3.this.before(this.next);
+            this.lastReturned = this.next;
+            this.nextIndex--;
+            return this.lastReturned.data;
+        }
+
+        @Override
+        public int nextIndex() {
+            return this.nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return this.nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            this.checkForComodification();
+            if (this.lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            this.unshare();
+            if (this.lastReturned == this.next) {
+                //last call was previous; the entry removed is at nextIndex
+                this.next = List3.this.after(this.next);
+                List3.this.unlink(this.lastReturned, this.nextIndex + 1);
+            } else {
+                //last call was next; the entry removed is at nextIndex - 1
+                List3.this.unlink(this.lastReturned, this.nextIndex);
+                this.nextIndex--;
+            }
+            this.lastReturned = null;
+            this.expectedModCount = List3.this.modCount;
+            assert List3.this.conventionHolds();
+        }
+
+        @Override
+        public void set(T x) {
+            assert x != null : "Violation of: x is not null";
+            this.checkForComodification();
+            if (this.lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            this.unshare();
+            this.lastReturned.data = x;
+            List3.this.hashValid = false;
+        }
+
+        @Override
+        public void add(T x) {
+            assert x != null : "Violation of: x is not null";
+            this.checkForComodification();
+            this.unshare();
+            List3.this.insertAfter(List3.this.before(this.next),
+                    this.nextIndex + 1, x);
+            this.nextIndex++;
+            this.lastReturned = null;
+            this.expectedModCount = List3.this.modCount;
+            assert List3.this.conventionHolds();
+        }
+
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The spliterator reports its exact size, so {@code stream} and
+     * {@code parallelStream} can split the work evenly: each split walks to
+     * the middle node of what is left (or, with the position index on, finds
+     * it through the index). Like the iterator, it fails fast.
+     * </p>
+     */
+    @Override
+    public final Spliterator<T> spliterator() {
+        assert this.conventionHolds();
+        return new List3Spliterator<T>(this, this.after(this.preStart), 1,
+                this.leftLength + this.rightLength);
+    }
+
+    /**
+     * Returns a sequential {@code Stream} over {@code this.left * this.right}.
+     *
+     * @return the stream
+     */
+    public final Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code Stream} over
+     * {@code this.left * this.right}.
+     *
+     * @return the stream
+     */
+    public final Stream<T> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * Returns a new extra cursor over {@code this}, at its start. Each cursor
+     * has its own place in the list and its own constant-time
+     * {@code advance}, {@code retreat}, {@code addRightFront}, and
+     * {@code removeRightFront}. An entry added or removed in the left part of
+     * another cursor (or of the main cursor) moves that cursor's length
+     * along, so every cursor stays between the same two entries; this costs
+     * time proportional to the number of open cursors on every change, so
+     * cursors should be closed when they are no longer needed.
+     *
+     * @return the cursor
+     * @ensures newCursor.leftLength = 0
+     */
+    public final Cursor newCursor() {
+        Cursor c = new Cursor();
+        if (this.cursors == null) {
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            Cursor[] array = new List3.Cursor[2];
+            this.cursors = array;
+        } else if (this.cursorCount == this.cursors.length) {
+            this.cursors = Arrays.copyOf(this.cursors, 2 * this.cursorCount);
+        }
+        this.cursors[this.cursorCount] = c;
+        this.cursorCount++;
+        return c;
+    }
+
+    /**
+     * Extra cursor over a {@code List3}, made by {@code newCursor}. It splits
+     * the entries of the list into its own left and right parts; its methods
+     * work like the {@code List} methods of the same names, but on those parts.
+     * Changes made through it are changes to the list, and so move the other
+     * cursors as usual.
+     *
+     * <p>
+     * Mathematical model: (left, right), where left * right is always
+     * {@code List3.this.left * List3.this.right}.
+     * </p>
+     */
+    public final class Cursor implements AutoCloseable {
+
+        /**
+         * Last node of the list in this cursor's left part.
+         */
+        private Node<T> lastLeft;
+
+        /**
+         * Length of this cursor's left part.
+         */
+        private int leftLength;
+
+        /**
+         * Whether this cursor is still open.
+         */
+        private boolean open;
+
+        /**
+         * No-argument constructor.
+         */
+        private Cursor() {
+            this.lastLeft = List3.this.preStart;
+            this.leftLength = 0;
+            this.open = true;
+        }
+
+        /**
+         * Reports the length of this cursor's left part.
+         *
+         * @return |this.left|
+         * @requires this cursor is open
+         */
+        public int leftLength() {
+            assert this.open : "Violation of: this cursor is open";
+
+            return this.leftLength;
+        }
+
+        /**
+         * Reports the length of this cursor's right part.
+         *
+         * @return |this.right|
+         * @requires this cursor is open
+         */
+        public int rightLength() {
+            assert this.open : "Violation of: this cursor is open";
+
+            return List3.this.leftLength + List3.this.rightLength
+                    - this.leftLength;
+        }
+
+        /**
+         * Moves this cursor forward one entry.
+         *
+         * @requires this cursor is open and this.right /= <>
+         * @ensures this.left * this.right = #this.left * #this.right and
+         *          |this.left| = |#this.left| + 1
+         */
+        public void advance() {
+            assert this.open : "Violation of: this cursor is open";
+            assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+            this.lastLeft = List3.this.after(this.lastLeft);
+            this.leftLength++;
+        }
+
+        /**
+         * Moves this cursor back one entry.
+         *
+         * @requires this cursor is open and this.left /= <>
+         * @ensures this.left * this.right = #this.left * #this.right and
+         *          |this.left| = |#this.left| - 1
+         */
+        public void retreat() {
+            assert this.open : "Violation of: this cursor is open";
+            assert this.leftLength > 0 : "Violation of: this.left /= <>";
+
+            this.lastLeft = List3.this.before(this.lastLeft);
+            this.leftLength--;
+        }
+
+        /**
+         * Moves this cursor to {@code position}, walking from the nearest of
+         * the list's start, its finish, and its main cursor, as
+         * {@code List3.moveToPosition} does.
+         *
+         * @param position
+         *            the new length of this cursor's left part
+         * @requires <pre>
+         * this cursor is open  and
+         * 0 <= position <= |this.left| + |this.right|
+         * </pre>
+         * @ensures this.left * this.right = #this.left * #this.right and
+         *          |this.left| = position
+         */
+        public void moveToPosition(int position) {
+            assert this.open : "Violation of: this cursor is open";
+            assert 0 <= position && position <= List3.this.leftLength
+                    + List3.this.rightLength : ""
+                            + "Violation of: 0 <= position <= |this.left| +"
+                            + " |this.right|";
+
+            this.lastLeft = List3.this.nodeAt(position);
+            this.leftLength = position;
+        }
+
+        /**
+         * Reports the front of this cursor's right part.
+         *
+         * @return the front of this.right
+         * @requires this cursor is open and this.right /= <>
+         * @ensures <pre>
+         * <rightFront> is prefix of this.right
+         * </pre>
+         */
+        public T rightFront() {
+            assert this.open : "Violation of: this cursor is open";
+            assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+            return List3.this.after(this.lastLeft).data;
+        }
+
+        /**
+         * Adds {@code x} at the front of this cursor's right part.
+         *
+         * @param x
+         *            the entry to be added
+         * @aliases reference x
+         * @updates List3.this
+         * @requires this cursor is open and x is not null
+         * @ensures this.left = #this.left and this.right = <x> * #this.right
+         */
+        public void addRightFront(T x) {
+            assert this.open : "Violation of: this cursor is open";
+            assert x != null : "Violation of: x is not null";
+
+            List3.this.unshare();
+            List3.this.insertAfter(this.lastLeft, this.leftLength + 1, x);
+
+            assert List3.this.conventionHolds();
+        }
+
+        /**
+         * Removes and returns the entry at the front of this cursor's right
+         * part.
+         *
+         * @return the front of this.right
+         * @updates List3.this
+         * @requires this cursor is open and this.right /= <>
+         * @ensures <pre>
+         * this.left = #this.left  and
+         * #this.right = <removeRightFront> * this.right
+         * </pre>
+         */
+        public T removeRightFront() {
+            assert this.open : "Violation of: this cursor is open";
+            assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+            List3.this.unshare();
+            T x = List3.this.unlink(List3.this.after(this.lastLeft),
+                    this.leftLength + 1);
+
+            assert List3.this.conventionHolds();
+            return x;
+        }
+
+        /**
+         * Closes this cursor, so that changes to the list no longer need to
+         * move it. Closing a closed cursor does nothing.
+         *
+         * @ensures this cursor is not open
+         */
+        @Override
+        public void close() {
+            if (this.open) {
+                Cursor[] all = List3.this.cursors;
+                int i = 0;
+                while (all[i] != this) {
+                    i++;
+                }
+                List3.this.cursorCount--;
+                all[i] = all[List3.this.cursorCount];
+                all[List3.this.cursorCount] = null;
+                this.lastLeft = null;
+                this.open = false;
+            }
+        }
+
+    }
+
+    /**
+     * Returns a read-only view of the current value of {@code this}, which
+     * later changes to {@code this} do not affect. The view's cursor can be
+     * moved, but its entries cannot be changed. Takes constant time: the
+     * snapshot and {@code this} share the nodes until {@code this} is next
+     * changed in a way that would touch them (moving the cursor and
+     * {@code flip} do not); then {@code this} first copies its nodes, in
+     * linear time, and leaves the old ones to its snapshots. The entries
+     * themselves are never copied.
+     *
+     * @return the snapshot
+     * @ensures snapshot = this
+     */
+    public final List<T> snapshot() {
+        this.shared = true;
+        return new List3Snapshot(this.preStart, this.lastLeft, this.postFinish,
+                this.reversed, this.leftLength, this.rightLength);
+    }
+
+    /**
+     * Read-only {@code List} over a doubly linked list of nodes shared with a
+     * {@code List3}, which copies them before it changes them.
+     *
+     * @convention <pre>
+     * [$this.preStart, $this.lastLeft, $this.postFinish, $this.leftLength,
+     *  and $this.rightLength are as in the List3 convention, with after and
+     *  before taken from $this.reversed]  and
+     * [the nodes are not changed while this exists]
+     * </pre>
+     * @correspondence <pre>
+     * this = [as in the List3 correspondence]
+     * </pre>
+     */
+    private final class List3Snapshot extends ListSecondary<T> {
+
+        /**
+         * "Smart node" before start node of doubly linked list.
+         */
+        private final Node<T> preStart;
+
+        /**
+         * Last node of doubly linked list in this.left.
+         */
+        private Node<T> lastLeft;
+
+        /**
+         * "Smart node" after finish node of linked list.
+         */
+        private final Node<T> postFinish;
+
+        /**
+         * Whether the list runs along the previous links.
+         */
+        private final boolean reversed;
+
+        /**
+         * Length of this.left.
+         */
+        private int leftLength;
+
+        /**
+         * Length of this.right.
+         */
+        private int rightLength;
+
+        /**
+         * Constructor from the representation of the list at the time of the
+         * snapshot.
+         *
+         * @param preStart
+         *            the node before the first entry
+         * @param lastLeft
+         *            the last node of this.left
+         * @param postFinish
+         *            the node after the last entry
+         * @param reversed
+         *            whether the list runs along the previous links
+         * @param leftLength
+         *            length of this.left
+         * @param rightLength
+         *            length of this.right
+         */
+        private List3Snapshot(Node<T> preStart, Node<T> lastLeft,
+                Node<T> postFinish, boolean reversed, int leftLength,
+                int rightLength) {
+            this.preStart = preStart;
+            this.lastLeft = lastLeft;
+            this.postFinish = postFinish;
+            this.reversed = reversed;
+            this.leftLength = leftLength;
+            this.rightLength = rightLength;
+        }
+
+        /**
+         * Returns the node after {@code n} in the snapshot's list.
+         *
+         * @param n
+         *            the node
+         * @return after(n)
+         */
+        private Node<T> after(Node<T> n) {
+            return this.reversed ? n.previous : n.next;
+        }
+
+        /**
+         * Returns the node before {@code n} in the snapshot's list.
+         *
+         * @param n
+         *            the node
+         * @return before(n)
+         */
+        private Node<T> before(Node<T> n) {
+            return this.reversed ? n.next : n.previous;
+        }
+
+        @Override
+        public List<T> newInstance() {
+            return new List3<T>();
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException("snapshot is read-only");
+        }
+
+        @Override
+        public void transferFrom(List<T> source) {
+            throw new UnsupportedOperationException("snapshot is read-only");
+        }
+
+        @Override
+        public void addRightFront(T x) {
+            throw new UnsupportedOperationException("snapshot is read-only");
+        }
+
+        @Override
+        public T removeRightFront() {
+            throw new UnsupportedOperationException("snapshot is read-only");
+        }
+
+        @Override
+        public void advance() {
+            assert this.rightLength > 0 : "Violation of: this.right /= <>";
+
+            this.lastLeft = this.after(this.lastLeft);
+            this.leftLength++;
+            this.rightLength--;
+        }
+
+        @Override
+        public void retreat() {
+            assert this.leftLength > 0 : "Violation of: this.left /= <>";
+
+            this.lastLeft = this.before(this.lastLeft);
+            this.leftLength--;
+            this.rightLength++;
+        }
+
+        @Override
+        public void moveToStart() {
+            this.lastLeft = this.preStart;
+            this.rightLength += this.leftLength;
+            this.leftLength = 0;
+        }
+
+        @Override
+        public void moveToFinish() {
+            this.lastLeft = this.before(this.postFinish);
+            this.leftLength += this.rightLength;
+            this.rightLength = 0;
+        }
+
+        @Override
+        public int leftLength() {
+            return this.leftLength;
+        }
+
+        @Override
+        public int rightLength() {
+            return this.rightLength;
+        }
+
+        @Override
+        public T rightFront() {
+            assert this.rightLength > 0 : "Violation of: this.right /= <>";
+
+            return this.after(this.lastLeft).data;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+
+                /**
+                 * Current node in the linked list.
+                 */
+                private Node<T> current = List3Snapshot.this
+                        .after(List3Snapshot.this.preStart);
+
+                @Override
+                public boolean hasNext() {
+                    return this.current != List3Snapshot.this.postFinish;
+                }
+
+                @Override
+                public T next() {
+                    if (!this.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    T x = this.current.data;
+                    this.current = List3Snapshot.this.after(this.current);
+                    return x;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException(
+                            "remove operation not supported");
+                }
+
+            };
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * When {@code list} is a {@code List3} its nodes are relinked onto the end
+     * of {@code this}, which allocates nothing and takes constant time,
+     * except that: if the two lists read their nodes in opposite directions
+     * (after {@code flip}), the shorter one is first reoriented, in time
+     * linear in its length; if either list shares its nodes with a snapshot,
+     * it first copies them; and if the index is on, it is rebuilt. Otherwise
+     * entries are moved one at a time.
+     * </p>
+     */
+    @Override
+    public final void append(List<T> list) {
+        assert list != null : "Violation of: list is not null";
+        assert list != this : "Violation of: list is not this";
+
+        List3Metrics.AppendEvent event = null;
+        if (List3Metrics.ENABLED) {
+            List3Metrics.record(List3Metrics.Operation.APPEND);
+            event = new List3Metrics.AppendEvent();
+            event.length = list.leftLength() + list.rightLength();
+            event.relinked = list instanceof List3<?>;
+            event.begin();
+        }
+        if (list instanceof List3<?>) {
+            List3<T> source = (List3<T>) list;
+            int length = source.leftLength + source.rightLength;
+            if (length > 0) {
+                //relinks the nodes of source just before this.postFinish
+                this.unshare();
+                source.unshare();
+                this.orientLike(source);
+                this.linkChainAfter(this.before(this.postFinish),
+                        source.after(source.preStart),
+                        source.before(source.postFinish));
+                this.rightLength += length;
+                source.detachAll();
+                this.rebuildIndex();
+                this.modCount++;
+            }
+            assert source.conventionHolds();
+        } else {
+            super.append(list);
+        }
+        if (event != null) {
+            event.commit();
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Makes {@code this} and {@code other} read their nodes in the same
+     * direction, by reorienting whichever of the two is shorter, so that
+     * chains of nodes can be moved from one to the other.
+     *
+     * @param other
+     *            the other list
+     * @ensures $this.reversed = $other.reversed
+     */
+    private void orientLike(List3<T> other) {
+        if (this.reversed != other.reversed) {
+            if (this.leftLength + this.rightLength < other.leftLength
+                    + other.rightLength) {
+                this.orient(other.reversed);
+            } else {
+                other.orient(this.reversed);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Takes constant time: the nodes are not touched, only the direction in
+     * which they are read.
+     * </p>
+     */
+    @Override
+    public final void flip() {
+
+        //the old first node of this.right becomes the last node of this.left
+        Node<T> newLastLeft = this.after(this.lastLeft);
+        int total = this.leftLength + this.rightLength;
+        for (int i = 0; i < this.cursorCount; i++) {
+            Cursor c = this.cursors[i];
+            c.lastLeft = this.after(c.lastLeft);
+            c.leftLength = total - c.leftLength;
+        }
+        Node<T> temp = this.preStart;
+        this.preStart = this.postFinish;
+        this.postFinish = temp;
+        this.reversed = !this.reversed;
+        this.lastLeft = newLastLeft;
+        int length = this.leftLength;
+        this.leftLength = this.rightLength;
+        this.rightLength = length;
+        this.rebuildIndex();
+        this.modCount++;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Inserts the entries of {@code list} at the front of {@code this.right},
+     * by relinking the nodes of {@code list} in constant time (plus the time
+     * to move the extra cursors past the new entries). As for {@code append},
+     * it takes linear time instead if the shorter of the two lists must first
+     * be reoriented to match the other, if either shares its nodes with a
+     * snapshot, or if the index is on. The extra cursors of {@code list} move
+     * to its start.
+     *
+     * @param list
+     *            the list whose entries are inserted
+     * @updates this
+     * @clears list
+     * @requires list is not null and list is not this
+     * @ensures this = (#this.left, #list.left * #list.right * #this.right)
+     */
+    public final void spliceAtCursor(List3<T> list) {
+        assert list != null : "Violation of: list is not null";
+        assert list != this : "Violation of: list is not this";
+
+        int length = list.leftLength + list.rightLength;
+        if (length > 0) {
+            //relinks the nodes of list just after this.lastLeft
+            this.unshare();
+            list.unshare();
+            this.orientLike(list);
+            this.linkChainAfter(this.lastLeft, list.after(list.preStart),
+                    list.before(list.postFinish));
+            this.shiftCursors(this.leftLength + 1, length);
+            this.rightLength += length;
+            list.detachAll();
+            this.rebuildIndex();
+            this.modCount++;
+        }
+
+        assert this.conventionHolds();
+        assert list.conventionHolds();
+    }
+
+    /**
+     * Removes {@code this.right} from {@code this} and returns it as a new
+     * list, by handing over its nodes in constant time. Extra cursors that
+     * were in {@code #this.right} move to the finish of {@code this}.
+     *
+     * @return the list of the entries of {@code #this.right}
+     * @updates this
+     * @ensures this = (#this.left, <>) and splitRight = (<>, #this.right)
+     */
+    public final List3<T> splitRight() {
+        List3<T> result = this.newInstance();
+        result.orient(this.reversed);
+        if (this.rightLength > 0) {
+            //cuts the chain after this.lastLeft and links it into result
+            this.unshare();
+            for (int i = 0; i < this.cursorCount; i++) {
+                Cursor c = this.cursors[i];
+                if (c.leftLength > this.leftLength) {
+                    c.lastLeft = this.lastLeft;
+                    c.leftLength = this.leftLength;
+                }
+            }
+            Node<T> first = this.after(this.lastLeft);
+            Node<T> last = this.before(this.postFinish);
+            this.link(this.lastLeft, this.postFinish);
+            result.linkChainAfter(result.preStart, first, last);
+            result.rightLength = this.rightLength;
+            this.rightLength = 0;
+            this.rebuildIndex();
+            this.modCount++;
+        }
+
+        assert this.conventionHolds();
+        assert result.conventionHolds();
+        return result;
+    }
+
+    /**
+     * Removes {@code this.left} from {@code this} and returns it as a new
+     * list, by handing over its nodes in constant time. Extra cursors that
+     * were in {@code #this.left} move to the start of {@code this}.
+     *
+     * @return the list of the entries of {@code #this.left}
+     * @updates this
+     * @ensures this = (<>, #this.right) and splitLeft = (#this.left, <>)
+     */
+    public final List3<T> splitLeft() {
+        List3<T> result = this.newInstance();
+        result.orient(this.reversed);
+        if (this.leftLength > 0) {
+            //cuts the chain after this.lastLeft and links the front into result
+            this.unshare();
+            for (int i = 0; i < this.cursorCount; i++) {
+                Cursor c = this.cursors[i];
+                if (c.leftLength <= this.leftLength) {
+                    c.lastLeft = this.preStart;
+                    c.leftLength = 0;
+                } else {
+                    c.leftLength -= this.leftLength;
+                }
+            }
+            Node<T> first = this.after(this.preStart);
+            Node<T> last = this.lastLeft;
+            this.link(this.preStart, this.after(last));
+            result.linkChainAfter(result.preStart, first, last);
+            result.lastLeft = last;
+            result.leftLength = this.leftLength;
+            this.lastLeft = this.preStart;
+            this.leftLength = 0;
+            this.rebuildIndex();
+            this.modCount++;
+        }
+
+        assert this.conventionHolds();
+        assert result.conventionHolds();
+        return result;
+    }
+
+    /**
+     * Links the chain of {@code count} new nodes from {@code first} through
+     * {@code last} in at the front of this.right, for the
+     * {@code addRightFrontAll} methods.
+     *
+     * @param first
+     *            the first node of the chain
+     * @param last
+     *            the last node of the chain
+     * @param count
+     *            the number of nodes in the chain
+     * @requires <pre>
+     * count > 0  and
+     * [first through last is a doubly linked chain of count nodes none of
+     *  which is in the doubly linked list of nodes]
+     * </pre>
+     */
+    private void linkAtRightFront(Node<T> first, Node<T> last, int count) {
+        this.unshare();
+        int oldLength = this.leftLength + this.rightLength;
+        this.linkChainAfter(this.lastLeft, first, last);
+        this.shiftCursors(this.leftLength + 1, count);
+        this.rightLength += count;
+        if (this.indexHead != null) {
+            if (count < oldLength) {
+                //a short run is cheaper to add to the index than a rebuild
+                Node<T> n = first;
+                for (int i = 1; i <= count; i++) {
+                    this.indexInserted(this.leftLength + i, n);
+                    n = this.after(n);
+                }
+            } else {
+                this.rebuildIndex();
+            }
+        }
+        this.modCount++;
+    }
+
+    /**
+     * Adds the entries of {@code entries} at the front of {@code this.right},
+     * in the order they appear in {@code entries}. The new nodes are linked
+     * into a chain first and then linked into the list in one step, so this
+     * takes time proportional to the number of entries added (plus the index
+     * upkeep, if the index is on), and the convention is checked only once.
+     *
+     * @param entries
+     *            the entries to add
+     * @aliases references in entries
+     * @updates this
+     * @requires entries is not null and [no entry of entries is null]
+     * @ensures this = (#this.left, <entries[0], ..., entries[|entries|-1]> *
+     *          #this.right)
+     */
+    public final void addRightFrontAll(T[] entries) {
+        assert entries != null : "Violation of: entries is not null";
+
+        if (entries.length > 0) {
+            assert entries[0] != null : ""
+                    + "Violation of: [no entry of entries is null]";
+            Node<T> first = this.newNode(entries[0]);
+            Node<T> last = first;
+            for (int i = 1; i < entries.length; i++) {
+                assert entries[i] != null : ""
+                        + "Violation of: [no entry of entries is null]";
+                Node<T> n = this.newNode(entries[i]);
+                this.link(last, n);
+                last = n;
+            }
+            this.linkAtRightFront(first, last, entries.length);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Adds the entries of {@code entries} at the front of {@code this.right},
+     * in iteration order, like {@code addRightFrontAll(T[])}. All of
+     * {@code entries} is iterated over before {@code this} is changed, so
+     * {@code entries} may be {@code this}.
+     *
+     * @param entries
+     *            the entries to add
+     * @aliases references in entries
+     * @updates this
+     * @requires entries is not null and [no entry of entries is null]
+     * @ensures this = (#this.left, [the entries of entries, in iteration
+     *          order] * #this.right)
+     */
+    public final void addRightFrontAll(Iterable<? extends T> entries) {
+        assert entries != null : "Violation of: entries is not null";
+
+        Node<T> first = null;
+        Node<T> last = null;
+        int count = 0;
+        for (T x : entries) {
+            assert x != null : ""
+                        + "Violation of: [no entry of entries is null]";
+            Node<T> n = this.newNode(x);
+            if (first == null) {
+                first = n;
+            } else {
+                this.link(last, n);
+            }
+            last = n;
+            count++;
+        }
+        if (count > 0) {
+            this.linkAtRightFront(first, last, count);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Removes the first {@code n} entries of {@code this.right} and returns
+     * them as a new list, by unlinking the run of nodes in one step. Takes
+     * time proportional to {@code n} (plus the index upkeep, if the index is
+     * on). Extra cursors that were in the removed run move to where it was.
+     *
+     * @param n
+     *            the number of entries to remove
+     * @return the list of the entries removed
+     * @updates this
+     * @requires 0 <= n <= |this.right|
+     * @ensures <pre>
+     * #this.right = removeRightFront.right * this.right  and
+     * this.left = #this.left  and  removeRightFront.left = <>  and
+     * |removeRightFront.right| = n
+     * </pre>
+     */
+    public final List3<T> removeRightFront(int n) {
+        assert 0 <= n && n <= this.rightLength : ""
+                + "Violation of: 0 <= n <= |this.right|";
+
+        List3<T> result = this.newInstance();
+        result.orient(this.reversed);
+        if (n > 0) {
+            this.unshare();
+            int oldLength = this.leftLength + this.rightLength;
+            Node<T> first = this.after(this.lastLeft);
+            Node<T> last = first;
+            for (int i = 1; i < n; i++) {
+                last = this.after(last);
+            }
+            this.link(this.lastLeft, this.after(last));
+            for (int i = 0; i < this.cursorCount; i++) {
+                Cursor c = this.cursors[i];
+                if (c.leftLength > this.leftLength + n) {
+                    c.leftLength -= n;
+                } else if (c.leftLength > this.leftLength) {
+                    c.lastLeft = this.lastLeft;
+                    c.leftLength = this.leftLength;
+                }
+            }
+            this.rightLength -= n;
+            if (this.indexHead != null) {
+                if (2 * n < oldLength) {
+                    //each removal shifts the next node down to the same rank
+                    for (int i = 0; i < n; i++) {
+                        this.indexRemoved(this.leftLength + 1);
+                    }
+                } else {
+                    this.rebuildIndex();
+                }
+            }
+            this.modCount++;
+            result.linkChainAfter(result.preStart, first, last);
+            result.rightLength = n;
+        }
+
+        assert this.conventionHolds();
+        assert result.conventionHolds();
+        return result;
+    }
+
+    /**
+     * Advances the cursor by {@code n} entries, as {@code n} calls of
+     * {@code advance} would, updating the lengths once. Takes the same time
+     * as {@code moveToPosition(|this.left| + n)}.
+     *
+     * @param n
+     *            the number of entries to advance by
+     * @updates this
+     * @requires 0 <= n <= |this.right|
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = |#this.left| + n
+     * </pre>
+     */
+    public final void advance(int n) {
+        assert 0 <= n && n <= this.rightLength : ""
+                + "Violation of: 0 <= n <= |this.right|";
+
+        if (List3Metrics.ENABLED) {
+            this.recordMove(List3Metrics.Operation.ADVANCE, n);
+        }
+        this.lastLeft = this.nodeAt(this.leftLength + n);
+        this.leftLength += n;
+        this.rightLength -= n;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Retreats the cursor by {@code n} entries, as {@code n} calls of
+     * {@code retreat} would, updating the lengths once. Takes the same time as
+     * {@code moveToPosition(|this.left| - n)}.
+     *
+     * @param n
+     *            the number of entries to retreat by
+     * @updates this
+     * @requires 0 <= n <= |this.left|
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = |#this.left| - n
+     * </pre>
+     */
+    public final void retreat(int n) {
+        assert 0 <= n && n <= this.leftLength : ""
+                + "Violation of: 0 <= n <= |this.left|";
+
+        if (List3Metrics.ENABLED) {
+            this.recordMove(List3Metrics.Operation.RETREAT, n);
+        }
+        this.lastLeft = this.nodeAt(this.leftLength - n);
+        this.leftLength -= n;
+        this.rightLength += n;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Writes {@code this} to {@code out}: {@code List3Codec.FORMAT_MAGIC},
+     * |this.left|, and
+     * |this.right| as {@code int}s, then the entries of
+     * {@code this.left * this.right} in order, each written by {@code codec}.
+     * The nodes are walked directly, so this takes linear time (plus the time
+     * spent in {@code codec}) and the convention is checked only once.
+     *
+     * @param out
+     *            the output
+     * @param codec
+     *            the codec for the entries
+     * @throws IOException
+     *             if writing to out fails
+     * @requires out is not null and codec is not null
+     * @ensures [the encoding of this is written to out]
+     */
+    public final void writeTo(DataOutput out, ElementCodec<? super T> codec)
+            throws IOException {
+        assert out != null : "Violation of: out is not null";
+        assert codec != null : "Violation of: codec is not null";
+
+        List3Codec.write(this, this.after(this.preStart), this.leftLength,
+                this.rightLength, out, codec);
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Replaces {@code this} with the list read from {@code in}, as written by
+     * {@code writeTo} with an equivalent {@code codec}. The nodes are linked
+     * into a chain as the entries are read, with no intermediate collection,
+     * and the chain replaces the old nodes in one step, so this takes linear
+     * time (plus the time spent in {@code codec}). If an
+     * {@code IOException} is thrown, {@code this} is left unchanged. The
+     * extra cursors move to the start of {@code this}.
+     *
+     * @param in
+     *            the input
+     * @param codec
+     *            the codec for the entries
+     * @throws IOException
+     *             if reading from in fails or what is read was not written by
+     *             {@code writeTo}
+     * @replaces this
+     * @requires in is not null and codec is not null
+     * @ensures [this is the list whose encoding was read from in]
+     */
+    public final void readFrom(DataInput in, ElementCodec<? extends T> codec)
+            throws IOException {
+        assert in != null : "Violation of: in is not null";
+        assert codec != null : "Violation of: codec is not null";
+
+        List3Codec.read(this, in, codec);
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Replaces the nodes of {@code this} with the chain from {@code first}
+     * to {@code last}, whose first {@code left} nodes become
+     * {@code this.left}, for {@code List3Codec.read}. The old nodes go back
+     * to the pool and the extra cursors move to the start.
+     *
+     * @param first
+     *            the first node of the chain, or null if it is empty
+     * @param last
+     *            the last node of the chain, or null if it is empty
+     * @param newLastLeft
+     *            the last node of the left part of the chain, or null if
+     *            {@code left = 0}
+     * @param left
+     *            the length of the left part of the chain
+     * @param right
+     *            the length of the right part of the chain
+     * @replaces this
+     * @requires <pre>
+     * [first through last is a chain of left + right nodes from newNode,
+     *  linked forward through next and previous]  and
+     * [newLastLeft is node number left of the chain]
+     * </pre>
+     */
+    void replaceWithChain(Node<T> first, Node<T> last, Node<T> newLastLeft,
+            int left, int right) {
+        //not clear, which would count a call of clear in the metrics
+        this.releaseRep();
+        if (left + right > 0) {
+            this.linkChainAfter(this.preStart, first, last);
+            if (left > 0) {
+                this.lastLeft = newLastLeft;
+            }
+            this.leftLength = left;
+            this.rightLength = right;
+            this.rebuildIndex();
+            this.modCount++;
+        }
+    }
+
+    /**
+     * Gets the chain of nodes between this.preStart and this.postFinish ready
+     * to be sorted: the links are made to run forward through next and the
+     * next link of the last node is set to null.
+     *
+     * @return the first node of the chain
+     * @requires |this.left| + |this.right| > 0
+     */
+    private Node<T> openChainForSort() {
+        this.orient(false);
+        this.postFinish.previous.next = null;
+        return this.preStart.next;
+    }
+
+    /**
+     * Links the chain between this.preStart and this.postFinish back together
+     * in its order before the sort, after {@code order.compare} threw. The sort
+     * sets only next links, so the previous links still run through the nodes
+     * in that order.
+     */
+    private void restoreChainAfterFailedSort() {
+        for (Node<T> n = this.postFinish; n != this.preStart; n = n.previous) {
+            n.previous.next = n;
+        }
+    }
+
+    /**
+     * Links the sorted chain starting at {@code first} back in between
+     * this.preStart and this.postFinish: sets the previous links, which the
+     * sort did not keep, and puts the main and extra cursors back at their
+     * left lengths.
+     *
+     * @param first
+     *            the first node of the sorted chain, linked through next and
+     *            ended by a null next link
+     */
+    private void closeChainAfterSort(Node<T> first) {
+        Node<T> last = this.preStart;
+        Node<T> n = first;
+        int rank = 0;
+        while (n != null) {
+            this.link(last, n);
+            rank++;
+            if (rank == this.leftLength) {
+                this.lastLeft = n;
+            }
+            last = n;
+            n = n.next;
+        }
+        this.link(last, this.postFinish);
+        if (this.leftLength == 0) {
+            this.lastLeft = this.preStart;
+        }
+        this.rebuildIndex();
+        for (int i = 0; i < this.cursorCount; i++) {
+            Cursor c = this.cursors[i];
+            c.lastLeft = this.nodeAt(c.leftLength);
+        }
+        this.modCount++;
+    }
+
+    /**
+     * Sorts {@code this.left * this.right} according to {@code order}, keeping
+     * the cursor (and every extra cursor) at the same left length. The nodes
+     * are relinked in place by a bottom-up merge sort, which takes
+     * O(n log n) time and allocates nothing (unless a snapshot shares the
+     * nodes, which are then copied first). The sort is stable. If
+     * {@code order.compare} throws, the exception is passed on and the list is
+     * left in its order before the call.
+     *
+     * @param order
+     *            ordering by which to sort
+     * @updates this
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * @ensures <pre>
+     * |this.left| = |#this.left|  and
+     * perms(this.left * this.right, #this.left * #this.right)  and
+     * IS_SORTED(this.left * this.right,
+     *  [relation computed by order.compare method])
+     * </pre>
+     */
+    public final void sort(Comparator<? super T> order) {
+        assert order != null : "Violation of: order is not null";
+
+        int length = this.leftLength + this.rightLength;
+        if (length > 1) {
+            this.unshare();
+            Node<T> first = this.openChainForSort();
+            Node<T> sorted = null;
+            try {
+                sorted = List3Sort.sort(first, length, order);
+            } finally {
+                if (sorted == null) {
+                    this.restoreChainAfterFailedSort();
+                } else {
+                    this.closeChainAfterSort(sorted);
+                }
+            }
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Sorts {@code this.left * this.right} according to {@code order} like
+     * {@code sort}, but sorts pieces of the list in parallel on the common
+     * {@code ForkJoinPool} and merges them. Lists of
+     * {@code List3Sort.PARALLEL_SORT_THRESHOLD} entries or fewer are sorted by
+     * the calling thread alone. The sort is stable, and {@code order} may be
+     * called from several threads at once.
+     * If {@code order.compare} throws, the exception is passed on once every
+     * piece has stopped, and the list is left in its order before the call.
+     *
+     * @param order
+     *            ordering by which to sort
+     * @updates this
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * @ensures <pre>
+     * |this.left| = |#this.left|  and
+     * perms(this.left * this.right, #this.left * #this.right)  and
+     * IS_SORTED(this.left * this.right,
+     *  [relation computed by order.compare method])
+     * </pre>
+     */
+    public final void parallelSort(Comparator<? super T> order) {
+        assert order != null : "Violation of: order is not null";
+
+        int length = this.leftLength + this.rightLength;
+        if (length > 1) {
+            this.unshare();
+            Node<T> first = this.openChainForSort();
+            Node<T> sorted = null;
+            try {
+                sorted = List3Sort.parallelSort(first, length, order);
+            } finally {
+                if (sorted == null) {
+                    this.restoreChainAfterFailedSort();
+                } else {
+                    this.closeChainAfterSort(sorted);
+                }
+            }
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Sets the maximum number of unused nodes this keeps for reuse by
+     * {@code addRightFront}; 0 turns node pooling off. Nodes already pooled
+     * beyond the new capacity are released. {@code removeRightFront} and
+     * {@code clear} return nodes to the pool and {@code addRightFront} takes
+     * them from it, so a list whose length stays roughly constant stops
+     * allocating once the pool has warmed up. Pooling is off by default.
+     *
+     * @param capacity
+     *            the new pool capacity
+     * @requires capacity >= 0
+     * @ensures nodePoolCapacity = capacity
+     */
+    public final void setNodePoolCapacity(int capacity) {
+        assert capacity >= 0 : "Violation of: capacity >= 0";
+
+        this.poolCapacity = capacity;
+        while (this.poolSize > capacity) {
+            this.pool = this.pool.next;
+            this.poolSize--;
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Reports the maximum number of unused nodes this keeps for reuse.
+     *
+     * @return the node pool capacity (0 if pooling is off)
+     */
+    public final int nodePoolCapacity() {
+        return this.poolCapacity;
+    }
+
+    @Override
+    public final void moveToFinish() {
+
+        if (List3Metrics.ENABLED) {
+            this.recordEndOfRun(List3Metrics.Operation.MOVE_TO_FINISH);
+        }
+
+        //moves the last left pointer to the post finish node
+        this.lastLeft = this.before(this.postFinish);
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
         assert this.leftLength() > 0 : "Violation of: this.left /= <>";
 
+        if (List3Metrics.ENABLED) {
+            this.recordMove(List3Metrics.Operation.RETREAT, 1);
+        }
+
         //moves the last left pointer to the previous node
-        Node x = this.lastLeft;
-        this.lastLeft = x.previous;
+        Node<T> x = this.lastLeft;
+        this.lastLeft = this.before(x);
         this.leftLength--;
         this.rightLength++;
         assert this.conventionHolds();
     }
 
+    /**
+     * Moves the cursor so that {@code this.left} has {@code position}
+     * entries. The walk starts from whichever of {@code preStart},
+     * {@code lastLeft}, and {@code postFinish} is closest to the target, so it
+     * takes time proportional to the distance from that node, or, with the
+     * position index on and the target far from all three, expected
+     * O(log n) time.
+     *
+     * @param position
+     *            the new length of {@code this.left}
+     * @updates this
+     * @requires 0 <= position <= |this.left| + |this.right|
+     * @ensures this.left * this.right = #this.left * #this.right and
+     *          |this.left| = position
+     */
+    public final void moveToPosition(int position) {
+        int length = this.leftLength + this.rightLength;
+        assert 0 <= position && position <= length : ""
+                + "Violation of: 0 <= position <= |this.left| + |this.right|";
+
+        if (List3Metrics.ENABLED) {
+            this.recordEndOfRun(List3Metrics.Operation.MOVE_TO_POSITION);
+        }
+        this.lastLeft = this.nodeAt(position);
+        this.leftLength = position;
+        this.rightLength = length - position;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Reports the entry at {@code position} in {@code this.left * this.right},
+     * without moving the cursor. Takes the same time as
+     * {@code moveToPosition(position)}.
+     *
+     * @param position
+     *            the position of the entry, counting from 0
+     * @return the entry at that position
+     * @requires 0 <= position < |this.left| + |this.right|
+     * @ensures <pre>
+     * [entry is the entry at position position in this.left * this.right]
+     * </pre>
+     */
+    public final T entry(int position) {
+        assert 0 <= position
+                && position < this.leftLength + this.rightLength : ""
+                        + "Violation of: 0 <= position < |this.left| +"
+                        + " |this.right|";
+
+        return this.nodeAt(position + 1).data;
+    }
+
+    /**
+     * Turns the position index on or off. Turning it on builds it in linear
+     * time; turning it off releases it.
+     *
+     * <p>
+     * The index is a skip list whose bottom level is the doubly linked list
+     * itself: each entry's node also gets a tower of height h >= 1 with
+     * probability 1/4^h, and each level of a tower records the next tower at
+     * that level and how many nodes ahead of it that tower is (its span).
+     * With the index on, {@code entry} and {@code moveToPosition} take
+     * expected O(log n) time, and {@code addRightFront} and
+     * {@code removeRightFront} take expected O(log n) time to keep the spans
+     * up to date. {@code flip}, {@code append}, {@code spliceAtCursor}, and
+     * the splits rebuild the index, which takes linear time. With the index
+     * off none of this costs anything.
+     * </p>
+     *
+     * @param indexed
+     *            whether the position index should be on
+     * @ensures isIndexed = indexed
+     */
+    public final void setIndexed(boolean indexed) {
+        if (indexed && this.indexHead == null) {
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            Tower[] update = new List3.Tower[MAX_INDEX_LEVELS];
+            this.indexUpdate = update;
+            this.indexUpdateRank = new int[MAX_INDEX_LEVELS];
+            this.indexSeed = System.identityHashCode(this) | 1;
+            this.indexHead = new Tower(null, MAX_INDEX_LEVELS);
+            this.rebuildIndex();
+        } else if (!indexed) {
+            this.indexHead = null;
+            this.indexLevels = 0;
+            this.indexUpdate = null;
+            this.indexUpdateRank = null;
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Reports whether the position index is on.
+     *
+     * @return true iff the position index is on
+     */
+    public final boolean isIndexed() {
+        return this.indexHead != null;
+    }
+
+    /**
+     * Reports the number of structural changes made to {@code this}, for the
+     * iterators and spliterators that fail fast.
+     *
+     * @return $this.modCount
+     */
+    int modCount() {
+        return this.modCount;
+    }
+
+    /*
+     * Common methods (from Object) -------------------------------------------
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * When {@code obj} is a {@code List3} the two chains of nodes are walked
+     * side by side, which takes linear time and allocates nothing; otherwise
+     * the entries of {@code obj} are read through its iterator. Neither list
+     * is changed.
+     * </p>
+     */
+    @Override
+    public final boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof List<?>)) {
+            return false;
+        }
+        List<?> other = (List<?>) obj;
+        if (this.leftLength != other.leftLength()
+                || this.rightLength != other.rightLength()) {
+            return false;
+        }
+        boolean result = true;
+        Node<T> n = this.after(this.preStart);
+        if (obj instanceof List3<?>) {
+            /*
+             * The entries of list are only passed to equals, so it does not
+             * matter that the type of its entries might not be T.
+             */
+            @SuppressWarnings("unchecked")
+            List3<T> list = (List3<T>) obj;
+            if (this.hashCurrent() && list.hashCurrent()
+                    && this.hashCache != list.hashCache) {
+                return false;
+            }
+            Node<T> m = list.after(list.preStart);
+            while (result && n != this.postFinish) {
+                result = n.data.equals(m.data);
+                n = this.after(n);
+                m = list.after(m);
+            }
+        } else {
+            Iterator<?> it = other.iterator();
+            while (result && n != this.postFinish) {
+                result = n.data.equals(it.next());
+                n = this.after(n);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the hash code of {@code this}, as {@code ListSecondary} does:
+     * from the first HASH_SAMPLES entries and the two lengths. Unlike
+     * {@code hashCode}, this does not write the cache, so
+     * {@code ConcurrentList3} can call it from many readers at once.
+     *
+     * @return the hash code
+     */
+    int computeHashCode() {
+        int result = 0;
+        Node<T> n = this.after(this.preStart);
+        for (int i = 0; i < HASH_SAMPLES && n != this.postFinish; i++) {
+            result = HASH_A * result + HASH_B * n.data.hashCode();
+            n = this.after(n);
+        }
+        return result + HASH_A * this.leftLength + HASH_B * this.rightLength;
+    }
+
+    /**
+     * Reports whether this.hashCache is the hash code of {@code this}.
+     *
+     * @return true iff this.hashCache is current
+     */
+    private boolean hashCurrent() {
+        return this.hashValid && this.hashModCount == this.modCount
+                && this.hashLeftLength == this.leftLength;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The hash code is computed with the formula {@code ListSecondary} uses,
+     * so that it agrees with other {@code List}s that are equal to
+     * {@code this}, but by reading the first nodes directly rather than
+     * through an iterator. It is then cached until {@code this} is changed or
+     * its cursor moves. The cache cannot see changes made inside the entries
+     * themselves, so entries whose hash codes can change must not be changed
+     * while {@code this} holds them.
+     * </p>
+     */
+    @Override
+    public final int hashCode() {
+        if (!this.hashCurrent()) {
+            int hash = this.computeHashCode();
+            this.hashCache = hash;
+            this.hashModCount = this.modCount;
+            this.hashLeftLength = this.leftLength;
+            this.hashValid = true;
+        }
+        return this.hashCache;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The nodes are walked directly, twice: once to turn the entries into
+     * strings and add up their lengths, and once to append them to a
+     * {@code StringBuilder} made with exactly the room they need.
+     * </p>
+     */
+    @Override
+    public final String toString() {
+        int length = this.leftLength + this.rightLength;
+        String[] strings = new String[length];
+        int size = STRING_OVERHEAD + Math.max(0, this.leftLength - 1)
+                + Math.max(0, this.rightLength - 1);
+        Node<T> n = this.after(this.preStart);
+        for (int i = 0; i < length; i++) {
+            strings[i] = String.valueOf(n.data);
+            size += strings[i].length();
+            n = this.after(n);
+        }
+        StringBuilder result = new StringBuilder(size);
+        result.append("(<");
+        for (int i = 0; i < length; i++) {
+            if (i == this.leftLength) {
+                result.append(">,<");
+            } else if (i > 0) {
+                result.append(',');
+            }
+            result.append(strings[i]);
+        }
+        if (length == this.leftLength) {
+            result.append(">,<");
+        }
+        result.append(">)");
+        return result.toString();
+    }
+
 }
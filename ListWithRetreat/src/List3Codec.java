@@ -0,0 +1,122 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The binary format of {@code List3.writeTo} and {@code List3.readFrom}:
+ * {@code FORMAT_MAGIC}, |left|, and |right| as {@code int}s, then the entries
+ * of {@code left * right} in order, each written by an {@code ElementCodec}.
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+final class List3Codec {
+
+    /**
+     * First four bytes of the format ("L3" and format version 1).
+     */
+    static final int FORMAT_MAGIC = 0x4C330001;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private List3Codec() {
+    }
+
+    /**
+     * Writes the list whose {@code leftLength + rightLength} nodes start at
+     * {@code first} to {@code out}, walking the nodes of {@code list}
+     * directly.
+     *
+     * @param <T>
+     *            type of the entries
+     * @param list
+     *            the list the nodes belong to
+     * @param first
+     *            the node holding the first entry of the list
+     * @param leftLength
+     *            the length of the left part of the list
+     * @param rightLength
+     *            the length of the right part of the list
+     * @param out
+     *            the output
+     * @param codec
+     *            the codec for the entries
+     * @throws IOException
+     *             if writing to out fails
+     * @requires <pre>
+     * [first is the first of leftLength + rightLength nodes of list]  and
+     * out is not null and codec is not null
+     * </pre>
+     * @ensures [the encoding of the list is written to out]
+     */
+    static <T> void write(List3<T> list, List3.Node<T> first, int leftLength,
+            int rightLength, DataOutput out, ElementCodec<? super T> codec)
+            throws IOException {
+        out.writeInt(FORMAT_MAGIC);
+        out.writeInt(leftLength);
+        out.writeInt(rightLength);
+        List3.Node<T> n = first;
+        for (int rank = 1; rank <= leftLength + rightLength; rank++) {
+            codec.write(out, n.data);
+            n = list.after(n);
+        }
+    }
+
+    /**
+     * Reads a list from {@code in} into a chain of new nodes of {@code list},
+     * with no intermediate collection, and then has {@code list} replace its
+     * nodes with the chain. If an {@code IOException} is thrown,
+     * {@code list} is left unchanged.
+     *
+     * @param <T>
+     *            type of the entries
+     * @param list
+     *            the list to replace
+     * @param in
+     *            the input
+     * @param codec
+     *            the codec for the entries
+     * @throws IOException
+     *             if reading from in fails or what is read was not written by
+     *             {@code write}
+     * @replaces list
+     * @requires in is not null and codec is not null
+     * @ensures [list is the list whose encoding was read from in]
+     */
+    static <T> void read(List3<T> list, DataInput in,
+            ElementCodec<? extends T> codec) throws IOException {
+        int magic = in.readInt();
+        if (magic != FORMAT_MAGIC) {
+            throw new IOException("Not a List3 encoding (header "
+                    + Integer.toHexString(magic) + ")");
+        }
+        int left = in.readInt();
+        int right = in.readInt();
+        if (left < 0 || right < 0 || left + right < 0) {
+            throw new IOException(
+                    "Bad List3 lengths " + left + " and " + right);
+        }
+        List3.Node<T> first = null;
+        List3.Node<T> last = null;
+        List3.Node<T> lastLeft = null;
+        for (int rank = 1; rank <= left + right; rank++) {
+            T x = codec.read(in);
+            assert x != null : "Violation of: [codec.read is not null]";
+            List3.Node<T> n = list.newNode(x);
+            if (first == null) {
+                first = n;
+            } else {
+                //links forward, as replaceWithChain expects
+                last.next = n;
+                n.previous = last;
+            }
+            if (rank == left) {
+                lastLeft = n;
+            }
+            last = n;
+        }
+        list.replaceWithChain(first, last, lastLeft, left, right);
+    }
+
+}
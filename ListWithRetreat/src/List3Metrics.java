@@ -0,0 +1,349 @@
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Opt-in instrumentation of {@code List3}: counts of calls to each kernel
+ * method and to the other methods below, a histogram of how far the cursor
+ * travels between edits, and JDK Flight Recorder events for the calls that
+ * can take linear time.
+ *
+ * <p>
+ * Instrumentation is on only if the system property {@code List3.metrics} is
+ * {@code true} when this class is loaded. {@code ENABLED} is a constant, so
+ * when it is false the JIT compiler drops the instrumentation from the
+ * {@code List3} methods altogether. When it is on, the counts are kept in
+ * {@code LongAdder}s, which many threads can add to without contending, and
+ * are shared by all {@code List3}s; they can be read through the static
+ * methods below or, over JMX, through the {@code List3MetricsMXBean}
+ * registered as {@code OBJECT_NAME}. The JFR events are recorded only while a
+ * recording that enables them is running.
+ * </p>
+ *
+ * <p>
+ * A cursor run is the number of places the cursor of one list has moved by
+ * {@code advance} and {@code retreat} (one per call, or {@code n} for
+ * {@code advance(n)} and {@code retreat(n)}, which count as one call each)
+ * since the last call that changed its entries or jumped its cursor
+ * ({@code addRightFront}, {@code removeRightFront}, {@code moveToStart},
+ * {@code moveToFinish}, {@code moveToPosition}, or {@code clear}); each run is
+ * recorded when it ends. Bucket 0 of the histogram counts runs of length 0
+ * and bucket b > 0 counts runs of length 2^(b-1) through 2^b - 1.
+ * </p>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public final class List3Metrics {
+
+    /**
+     * Methods whose calls are counted.
+     */
+    public enum Operation {
+        /**
+         * {@code addRightFront}.
+         */
+        ADD_RIGHT_FRONT,
+        /**
+         * {@code removeRightFront}.
+         */
+        REMOVE_RIGHT_FRONT,
+        /**
+         * {@code advance}.
+         */
+        ADVANCE,
+        /**
+         * {@code retreat}.
+         */
+        RETREAT,
+        /**
+         * {@code moveToStart}.
+         */
+        MOVE_TO_START,
+        /**
+         * {@code moveToFinish}.
+         */
+        MOVE_TO_FINISH,
+        /**
+         * {@code moveToPosition}.
+         */
+        MOVE_TO_POSITION,
+        /**
+         * {@code clear}.
+         */
+        CLEAR,
+        /**
+         * {@code transferFrom}.
+         */
+        TRANSFER_FROM,
+        /**
+         * {@code append}.
+         */
+        APPEND,
+        /**
+         * {@code iterator}.
+         */
+        ITERATOR
+    }
+
+    /**
+     * Whether instrumentation is on.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("List3.metrics");
+
+    /**
+     * Shortest list whose iterations are recorded as JFR events.
+     */
+    public static final int ITERATION_EVENT_THRESHOLD = Integer
+            .getInteger("List3.metrics.iterationThreshold", 10_000);
+
+    /**
+     * Name under which the MXBean is registered.
+     */
+    public static final String OBJECT_NAME = "List3:type=Metrics";
+
+    /**
+     * Number of buckets in the cursor-run histogram.
+     */
+    public static final int TRAVEL_BUCKETS = Integer.SIZE;
+
+    /**
+     * Call counts.
+     */
+    private static final LongAdder[] COUNTS = newAdders(
+            Operation.values().length);
+
+    /**
+     * Cursor-run histogram.
+     */
+    private static final LongAdder[] TRAVEL = newAdders(TRAVEL_BUCKETS);
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(
+                        new MXBeanImpl(), new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                //the counts are still there through the static methods
+                System.err.println("List3Metrics: cannot register "
+                        + OBJECT_NAME + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private List3Metrics() {
+    }
+
+    /**
+     * Returns an array of {@code n} new {@code LongAdder}s.
+     *
+     * @param n
+     *            the number of adders
+     * @return the adders
+     */
+    private static LongAdder[] newAdders(int n) {
+        LongAdder[] result = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = new LongAdder();
+        }
+        return result;
+    }
+
+    /**
+     * Counts a call of {@code op}. Called by {@code List3} only when ENABLED.
+     *
+     * @param op
+     *            the method called
+     */
+    static void record(Operation op) {
+        COUNTS[op.ordinal()].increment();
+    }
+
+    /**
+     * Records a cursor run of {@code length} moves. Called by {@code List3}
+     * only when ENABLED.
+     *
+     * @param length
+     *            the length of the run
+     * @requires length >= 0
+     */
+    static void recordTravel(int length) {
+        TRAVEL[Integer.SIZE - Integer.numberOfLeadingZeros(length)]
+                .increment();
+    }
+
+    /**
+     * Reports the number of calls of {@code op} counted since the program
+     * started or {@code reset} was last called.
+     *
+     * @param op
+     *            the method
+     * @return the count
+     */
+    public static long count(Operation op) {
+        return COUNTS[op.ordinal()].sum();
+    }
+
+    /**
+     * Reports the counts of calls of all the methods.
+     *
+     * @return a map from each method to its count
+     */
+    public static Map<Operation, Long> counts() {
+        Map<Operation, Long> result = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            result.put(op, count(op));
+        }
+        return result;
+    }
+
+    /**
+     * Reports the cursor-run histogram.
+     *
+     * @return the number of runs recorded in each bucket
+     * @ensures |travelHistogram| = TRAVEL_BUCKETS
+     */
+    public static long[] travelHistogram() {
+        long[] result = new long[TRAVEL_BUCKETS];
+        for (int i = 0; i < TRAVEL_BUCKETS; i++) {
+            result[i] = TRAVEL[i].sum();
+        }
+        return result;
+    }
+
+    /**
+     * Sets all the counts and the histogram back to 0.
+     */
+    public static void reset() {
+        for (LongAdder a : COUNTS) {
+            a.reset();
+        }
+        for (LongAdder a : TRAVEL) {
+            a.reset();
+        }
+    }
+
+    /**
+     * JMX view of the metrics.
+     */
+    public interface List3MetricsMXBean {
+
+        /**
+         * Reports the counts of calls of all the methods.
+         *
+         * @return a map from each method name to its count
+         */
+        Map<String, Long> getOperationCounts();
+
+        /**
+         * Reports the cursor-run histogram.
+         *
+         * @return the number of runs recorded in each bucket
+         */
+        long[] getTravelHistogram();
+
+        /**
+         * Sets all the counts and the histogram back to 0.
+         */
+        void reset();
+
+    }
+
+    /**
+     * Implementation of {@code List3MetricsMXBean} over the static methods.
+     */
+    private static final class MXBeanImpl implements List3MetricsMXBean {
+
+        @Override
+        public Map<String, Long> getOperationCounts() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (Map.Entry<Operation, Long> e : counts().entrySet()) {
+                result.put(e.getKey().name(), e.getValue());
+            }
+            return result;
+        }
+
+        @Override
+        public long[] getTravelHistogram() {
+            return travelHistogram();
+        }
+
+        @Override
+        public void reset() {
+            List3Metrics.reset();
+        }
+
+    }
+
+    /**
+     * JFR event for one call of {@code transferFrom}.
+     */
+    @Name("List3.TransferFrom")
+    @Label("List3 transferFrom")
+    @Category("List3")
+    static final class TransferEvent extends Event {
+
+        /**
+         * Length of the list transferred.
+         */
+        @Label("Length")
+        int length;
+
+    }
+
+    /**
+     * JFR event for one call of {@code append}.
+     */
+    @Name("List3.Append")
+    @Label("List3 append")
+    @Category("List3")
+    static final class AppendEvent extends Event {
+
+        /**
+         * Length of the list appended.
+         */
+        @Label("Length")
+        int length;
+
+        /**
+         * Whether the nodes were relinked rather than moved one at a time.
+         */
+        @Label("Relinked")
+        boolean relinked;
+
+    }
+
+    /**
+     * JFR event for one iteration over a list of at least
+     * ITERATION_EVENT_THRESHOLD entries, from the call of {@code iterator}
+     * to the call of {@code hasNext} that returns false.
+     */
+    @Name("List3.Iteration")
+    @Label("List3 iteration")
+    @Description("Iteration over a long List3")
+    @Category("List3")
+    static final class IterationEvent extends Event {
+
+        /**
+         * Length of the list iterated over.
+         */
+        @Label("Length")
+        int length;
+
+    }
+
+}
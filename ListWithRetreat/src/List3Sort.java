@@ -0,0 +1,227 @@
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Merge sorts of chains of {@code List3} nodes, for {@code List3.sort} and
+ * {@code List3.parallelSort}. A chain runs through next links and is ended by
+ * a null next link. The sorts set only next links, so the caller can fix the
+ * previous links afterwards, or, if {@code order} throws, relink the chain in
+ * its old order from the previous links. Both sorts are stable.
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+final class List3Sort {
+
+    /**
+     * Longest chain that {@code parallelSort} sorts without cutting it in
+     * two.
+     */
+    static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private List3Sort() {
+    }
+
+    /**
+     * Sorts the chain of {@code length} nodes that starts at {@code first}
+     * with a bottom-up merge sort, allocating nothing.
+     *
+     * @param <T>
+     *            type of the data in the nodes
+     * @param first
+     *            the first node of the chain
+     * @param length
+     *            the number of nodes in the chain
+     * @param order
+     *            the order to sort by
+     * @return the first node of the sorted chain
+     */
+    static <T> List3.Node<T> sort(List3.Node<T> first, int length,
+            Comparator<? super T> order) {
+        List3.Node<T> head = first;
+        for (int run = 1; run < length; run *= 2) {
+            //merges each pair of adjacent sorted runs of length run
+            List3.Node<T> p = head;
+            List3.Node<T> tail = null;
+            head = null;
+            while (p != null) {
+                List3.Node<T> q = p;
+                int pLength = 0;
+                while (pLength < run && q != null) {
+                    pLength++;
+                    q = q.next;
+                }
+                int qLength = run;
+                while (pLength > 0 || (qLength > 0 && q != null)) {
+                    List3.Node<T> n;
+                    if (pLength == 0 || (qLength > 0 && q != null
+                            && order.compare(q.data, p.data) < 0)) {
+                        n = q;
+                        q = q.next;
+                        qLength--;
+                    } else {
+                        n = p;
+                        p = p.next;
+                        pLength--;
+                    }
+                    if (tail == null) {
+                        head = n;
+                    } else {
+                        tail.next = n;
+                    }
+                    tail = n;
+                }
+                p = q;
+            }
+            tail.next = null;
+        }
+        return head;
+    }
+
+    /**
+     * Sorts the chain of {@code length} nodes that starts at {@code first} on
+     * the common {@code ForkJoinPool}, cutting it in two and sorting the
+     * halves in parallel while it is longer than PARALLEL_SORT_THRESHOLD. If
+     * {@code order} throws, the exception is passed on only after every piece
+     * has stopped relinking nodes.
+     *
+     * @param <T>
+     *            type of the data in the nodes
+     * @param first
+     *            the first node of the chain
+     * @param length
+     *            the number of nodes in the chain
+     * @param order
+     *            the order to sort by, which may be called from several
+     *            threads at once
+     * @return the first node of the sorted chain
+     */
+    static <T> List3.Node<T> parallelSort(List3.Node<T> first, int length,
+            Comparator<? super T> order) {
+        return ForkJoinPool.commonPool()
+                .invoke(new SortTask<T>(first, length, order));
+    }
+
+    /**
+     * Merges the two sorted chains starting at {@code a} and {@code b} into
+     * one. On equal entries the one from {@code a} comes first.
+     *
+     * @param <T>
+     *            type of the data in the nodes
+     * @param a
+     *            the first node of the first chain, not null
+     * @param b
+     *            the first node of the second chain, not null
+     * @param order
+     *            the order the chains are sorted by
+     * @return the first node of the merged chain
+     */
+    private static <T> List3.Node<T> merge(List3.Node<T> a, List3.Node<T> b,
+            Comparator<? super T> order) {
+        List3.Node<T> p = a;
+        List3.Node<T> q = b;
+        List3.Node<T> head;
+        if (order.compare(q.data, p.data) < 0) {
+            head = q;
+            q = q.next;
+        } else {
+            head = p;
+            p = p.next;
+        }
+        List3.Node<T> tail = head;
+        while (p != null && q != null) {
+            if (order.compare(q.data, p.data) < 0) {
+                tail.next = q;
+                q = q.next;
+            } else {
+                tail.next = p;
+                p = p.next;
+            }
+            tail = tail.next;
+        }
+        tail.next = (p != null) ? p : q;
+        return head;
+    }
+
+    /**
+     * Task that sorts a chain of nodes for {@code parallelSort}.
+     *
+     * @param <T>
+     *            type of the data in the nodes
+     */
+    private static final class SortTask<T>
+            extends RecursiveTask<List3.Node<T>> {
+
+        /**
+         * Serialization version (tasks are never serialized).
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * First node of the chain.
+         */
+        private final transient List3.Node<T> first;
+
+        /**
+         * Number of nodes in the chain.
+         */
+        private final int length;
+
+        /**
+         * The order to sort by.
+         */
+        private final transient Comparator<? super T> order;
+
+        /**
+         * Constructor.
+         *
+         * @param first
+         *            the first node of the chain
+         * @param length
+         *            the number of nodes in the chain
+         * @param order
+         *            the order to sort by
+         */
+        private SortTask(List3.Node<T> first, int length,
+                Comparator<? super T> order) {
+            this.first = first;
+            this.length = length;
+            this.order = order;
+        }
+
+        @Override
+        protected List3.Node<T> compute() {
+            if (this.length <= PARALLEL_SORT_THRESHOLD) {
+                return sort(this.first, this.length, this.order);
+            }
+            //cuts the chain after its middle node
+            int half = this.length / 2;
+            List3.Node<T> middle = this.first;
+            for (int i = 1; i < half; i++) {
+                middle = middle.next;
+            }
+            List3.Node<T> second = middle.next;
+            middle.next = null;
+            SortTask<T> right = new SortTask<T>(second, this.length - half,
+                    this.order);
+            right.fork();
+            List3.Node<T> a;
+            try {
+                a = new SortTask<T>(this.first, half, this.order).compute();
+            } catch (RuntimeException | Error e) {
+                //the caller may relink the nodes once this returns, so the
+                //other half must not still be sorting them
+                right.quietlyJoin();
+                throw e;
+            }
+            List3.Node<T> b = right.join();
+            return merge(a, b, this.order);
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of {@code Spliterator} interface for {@code List3}: it walks
+ * a run of the list's nodes and splits off the first half of what is left.
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+final class List3Spliterator<T> implements Spliterator<T> {
+
+    /**
+     * The list traversed.
+     */
+    private final List3<T> list;
+
+    /**
+     * Node holding the next entry to traverse.
+     */
+    private List3.Node<T> current;
+
+    /**
+     * Rank of this.current in the doubly linked list.
+     */
+    private int rank;
+
+    /**
+     * Number of entries left to traverse.
+     */
+    private int remaining;
+
+    /**
+     * Value of this.list.modCount() when this spliterator was made.
+     */
+    private final int expectedModCount;
+
+    /**
+     * Constructor.
+     *
+     * @param list
+     *            the list to traverse
+     * @param current
+     *            the node holding the first entry to traverse
+     * @param rank
+     *            the rank of current
+     * @param remaining
+     *            the number of entries to traverse
+     */
+    List3Spliterator(List3<T> list, List3.Node<T> current, int rank,
+            int remaining) {
+        this.list = list;
+        this.current = current;
+        this.rank = rank;
+        this.remaining = remaining;
+        this.expectedModCount = list.modCount();
+    }
+
+    /**
+     * Throws {@code ConcurrentModificationException} if this.list has been
+     * structurally changed since this spliterator was made.
+     */
+    private void checkForComodification() {
+        if (this.list.modCount() != this.expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        this.checkForComodification();
+        boolean advanced = this.remaining > 0;
+        if (advanced) {
+            T x = this.current.data;
+            this.current = this.list.after(this.current);
+            this.rank++;
+            this.remaining--;
+            action.accept(x);
+        }
+        return advanced;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        this.checkForComodification();
+        List3.Node<T> n = this.current;
+        for (int i = this.remaining; i > 0; i--) {
+            action.accept(n.data);
+            n = this.list.after(n);
+        }
+        this.current = n;
+        this.rank += this.remaining;
+        this.remaining = 0;
+        this.checkForComodification();
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        this.checkForComodification();
+        Spliterator<T> prefix = null;
+        int half = this.remaining / 2;
+        if (half > 0) {
+            //hands the first half to a new spliterator
+            List3.Node<T> middle;
+            if (this.list.isIndexed()) {
+                middle = this.list.indexNodeAt(this.rank + half);
+            } else {
+                middle = this.current;
+                for (int i = 0; i < half; i++) {
+                    middle = this.list.after(middle);
+                }
+            }
+            prefix = new List3Spliterator<T>(this.list, this.current,
+                    this.rank, half);
+            this.current = middle;
+            this.rank += half;
+            this.remaining -= half;
+        }
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+                | Spliterator.NONNULL;
+    }
+
+}
@@ -0,0 +1,563 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as an unrolled doubly linked list, done
+ * "bare-handed": each node (a "chunk") holds up to {@code CHUNK_CAPACITY}
+ * entries in an array, and the position between this.left and this.right is
+ * given by a chunk and an offset into it.
+ *
+ * <p>
+ * Compared with {@code List3}, which keeps one entry per node, this needs
+ * about one node header and two links per {@code CHUNK_CAPACITY} entries, and
+ * traversals (iteration, {@code equals}, {@code hashCode}, {@code toString})
+ * read entries that are next to each other in memory.
+ * </p>
+ *
+ * <p>
+ * Execution-time performance of all methods implemented in this class is
+ * O(CHUNK_CAPACITY), i.e., O(1).
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * [$this.rightLength >= 0] and
+ * [$this.preStart is not null]  and
+ * [$this.postFinish is not null]  and
+ * [$this.cursor is not null]  and
+ * [$this.preStart points to the first chunk of a doubly linked list
+ *  of chunks whose last chunk is pointed to by $this.postFinish]  and
+ * [$this.preStart.count = 0 and $this.postFinish.count = 0]  and
+ * [for every chunk c in that list other than $this.preStart and
+ *  $this.postFinish, 0 < c.count <= CHUNK_CAPACITY and c.entries[i] is not
+ *  null exactly when 0 <= i < c.count]  and
+ * [the chunks other than $this.preStart and $this.postFinish together hold
+ *  ($this.leftLength + $this.rightLength) entries]  and
+ * [$this.cursor points to a chunk in that list other than $this.postFinish]
+ *  and
+ * 0 <= $this.offset <= $this.cursor.count  and
+ * [the chunks from $this.preStart up to but not including $this.cursor,
+ *  together with the first $this.offset entries of $this.cursor, hold
+ *  $this.leftLength entries]  and
+ * [for every chunk c in the list of chunks, except the one pointed to by
+ *  $this.preStart, c.previous.next = c]  and
+ * [for every chunk c in the list of chunks, except the one pointed to by
+ *  $this.postFinish, c.next.previous = c]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([entries in chunks starting at $this.preStart.next and running through
+ *    the first $this.offset entries of $this.cursor],
+ *   [entries starting after the first $this.offset entries of $this.cursor
+ *    and running through $this.postFinish.previous])
+ * </pre>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public class List4<T> extends ListSecondary<T> {
+
+    /**
+     * Maximum number of entries in one chunk.
+     */
+    private static final int CHUNK_CAPACITY = 32;
+
+    /**
+     * Number of entries in a chunk below which it is merged with its
+     * successor when possible.
+     */
+    private static final int MERGE_THRESHOLD = CHUNK_CAPACITY / 4;
+
+    /**
+     * Chunk class for unrolled doubly linked list nodes.
+     */
+    private final class Chunk {
+
+        /**
+         * Entries in chunk, in positions 0 through count - 1; null elsewhere.
+         */
+        private final Object[] entries;
+
+        /**
+         * Number of entries in chunk.
+         */
+        private int count;
+
+        /**
+         * Next chunk in doubly linked list, or, if this is a trailing "smart"
+         * chunk, irrelevant.
+         */
+        private Chunk next;
+
+        /**
+         * Previous chunk in doubly linked list, or, if this is a leading
+         * "smart" chunk, irrelevant.
+         */
+        private Chunk previous;
+
+        /**
+         * Constructor for a chunk with room for {@code capacity} entries.
+         *
+         * @param capacity
+         *            the number of entries the chunk can hold
+         */
+        private Chunk(int capacity) {
+            this.entries = new Object[capacity];
+        }
+
+        /**
+         * Returns the entry at position {@code i} of this chunk.
+         *
+         * @param i
+         *            the position of the entry
+         * @return the entry
+         * @requires 0 <= i < this.count
+         */
+        @SuppressWarnings("unchecked")
+        private T entry(int i) {
+            return (T) this.entries[i];
+        }
+
+    }
+
+    /**
+     * "Smart chunk" before start chunk of doubly linked list.
+     */
+    private Chunk preStart;
+
+    /**
+     * "Smart chunk" after finish chunk of doubly linked list.
+     */
+    private Chunk postFinish;
+
+    /**
+     * Chunk holding the position between this.left and this.right.
+     */
+    private Chunk cursor;
+
+    /**
+     * Number of entries of this.cursor that are in this.left.
+     */
+    private int offset;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * [$this.rightLength >= 0] and
+     * [$this.preStart is not null]  and
+     * [$this.postFinish is not null]  and
+     * [$this.cursor is not null]  and
+     * [$this.preStart points to the first chunk of a doubly linked list
+     *  of chunks whose last chunk is pointed to by $this.postFinish]  and
+     * [$this.preStart.count = 0 and $this.postFinish.count = 0]  and
+     * [for every chunk c in that list other than $this.preStart and
+     *  $this.postFinish, 0 < c.count <= CHUNK_CAPACITY]  and
+     * [the chunks other than $this.preStart and $this.postFinish together
+     *  hold ($this.leftLength + $this.rightLength) entries]  and
+     * [$this.cursor points to a chunk in that list other than
+     *  $this.postFinish]  and
+     * 0 <= $this.offset <= $this.cursor.count  and
+     * [the chunks from $this.preStart up to but not including $this.cursor,
+     *  together with the first $this.offset entries of $this.cursor, hold
+     *  $this.leftLength entries]  and
+     * [for every chunk c in the list of chunks, except the one pointed to by
+     *  $this.preStart, c.previous.next = c]  and
+     * [for every chunk c in the list of chunks, except the one pointed to by
+     *  $this.postFinish, c.next.previous = c]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.preStart != null : "Violation of: $this.preStart is not null";
+        assert this.postFinish != null : "Violation of: $this.postFinish is not null";
+        assert this.cursor != null : "Violation of: $this.cursor is not null";
+        assert this.preStart.count == 0
+                && this.postFinish.count == 0 : ""
+                        + "Violation of: [$this.preStart.count = 0 and"
+                        + " $this.postFinish.count = 0]";
+        assert 0 <= this.offset && this.offset <= this.cursor.count : ""
+                + "Violation of: 0 <= $this.offset <= $this.cursor.count";
+
+        int entries = 0;
+        boolean cursorFound = false;
+        Chunk c = this.preStart;
+        while ((entries <= this.leftLength + this.rightLength)
+                && (c != this.postFinish)) {
+            if (c != this.preStart) {
+                assert 0 < c.count && c.count <= CHUNK_CAPACITY : ""
+                        + "Violation of: [for every chunk c in that list other"
+                        + " than $this.preStart and $this.postFinish,"
+                        + " 0 < c.count <= CHUNK_CAPACITY]";
+            }
+            if (c == this.cursor) {
+                assert entries + this.offset == this.leftLength : ""
+                        + "Violation of: [the chunks from $this.preStart up to"
+                        + " but not including $this.cursor, together with the"
+                        + " first $this.offset entries of $this.cursor, hold"
+                        + " $this.leftLength entries]";
+                cursorFound = true;
+            }
+            entries += c.count;
+            assert (c.next != null) && (c.next.previous == c) : ""
+                    + "Violation of: [for every chunk c in the list of chunks,"
+                    + " except the one pointed to by $this.postFinish,"
+                    + " c.next.previous = c]";
+            c = c.next;
+            assert c.previous.next == c : ""
+                    + "Violation of: [for every chunk c in the list of chunks,"
+                    + " except the one pointed to by $this.preStart,"
+                    + " c.previous.next = c]";
+        }
+        assert c == this.postFinish : ""
+                + "Violation of: [$this.preStart points to the first chunk of"
+                + " a doubly linked list of chunks whose last chunk is pointed"
+                + " to by $this.postFinish]";
+        assert entries == this.leftLength + this.rightLength : ""
+                + "Violation of: [the chunks other than $this.preStart and"
+                + " $this.postFinish together hold"
+                + " ($this.leftLength + $this.rightLength) entries]";
+        assert cursorFound : ""
+                + "Violation of: [$this.cursor points to a chunk in that list"
+                + " other than $this.postFinish]";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.preStart = new Chunk(0);
+        this.postFinish = new Chunk(0);
+        this.preStart.next = this.postFinish;
+        this.postFinish.previous = this.preStart;
+        this.cursor = this.preStart;
+        this.offset = 0;
+        this.leftLength = 0;
+        this.rightLength = 0;
+
+    }
+
+    /**
+     * Inserts a new, empty chunk after {@code c} and returns it.
+     *
+     * @param c
+     *            the chunk to insert after
+     * @return the new chunk
+     * @requires c is in this list of chunks and c is not this.postFinish
+     */
+    private Chunk insertChunkAfter(Chunk c) {
+        Chunk newChunk = new Chunk(CHUNK_CAPACITY);
+        newChunk.previous = c;
+        newChunk.next = c.next;
+        c.next.previous = newChunk;
+        c.next = newChunk;
+        return newChunk;
+    }
+
+    /**
+     * Removes {@code c} from the list of chunks.
+     *
+     * @param c
+     *            the chunk to remove
+     * @requires c is in this list of chunks and c is not this.preStart or
+     *           this.postFinish
+     */
+    private void unlinkChunk(Chunk c) {
+        c.previous.next = c.next;
+        c.next.previous = c.previous;
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List4() {
+
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List4<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List4<?> : ""
+                + "Violation of: source is of dynamic type List4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List4<T> localSource = (List4<T>) source;
+        this.preStart = localSource.preStart;
+        this.postFinish = localSource.postFinish;
+        this.cursor = localSource.cursor;
+        this.offset = localSource.offset;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        //finds a real chunk to insert into, at the same position
+        Chunk c = this.cursor;
+        int i = this.offset;
+        if (c == this.preStart) {
+            c = c.next;
+            if (c == this.postFinish) {
+                c = this.insertChunkAfter(this.preStart);
+            }
+        } else if (i == c.count && c.count == CHUNK_CAPACITY
+                && c.next != this.postFinish
+                && c.next.count < CHUNK_CAPACITY) {
+            c = c.next;
+            i = 0;
+        }
+
+        //splits a full chunk in half so there is room for x
+        if (c.count == CHUNK_CAPACITY) {
+            int half = CHUNK_CAPACITY / 2;
+            Chunk newChunk = this.insertChunkAfter(c);
+            System.arraycopy(c.entries, half, newChunk.entries, 0,
+                    CHUNK_CAPACITY - half);
+            Arrays.fill(c.entries, half, CHUNK_CAPACITY, null);
+            newChunk.count = CHUNK_CAPACITY - half;
+            c.count = half;
+            if (i > half) {
+                c = newChunk;
+                i -= half;
+            }
+        }
+
+        //shifts the entries after the cursor up one place and stores x
+        System.arraycopy(c.entries, i, c.entries, i + 1, c.count - i);
+        c.entries[i] = x;
+        c.count++;
+        this.cursor = c;
+        this.offset = i;
+        this.rightLength++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //finds the chunk holding the front of this.right
+        Chunk c = this.cursor;
+        int i = this.offset;
+        if (i == c.count) {
+            c = c.next;
+            i = 0;
+        }
+
+        //removes the entry, shifting the later entries down one place
+        T x = c.entry(i);
+        System.arraycopy(c.entries, i + 1, c.entries, i, c.count - i - 1);
+        c.count--;
+        c.entries[c.count] = null;
+        this.rightLength--;
+
+        if (c.count == 0) {
+            //drops the now empty chunk
+            this.unlinkChunk(c);
+            c = c.previous;
+            i = c.count;
+        } else if (c.count < MERGE_THRESHOLD && c.next != this.postFinish
+                && c.count + c.next.count <= CHUNK_CAPACITY) {
+            //pulls the entries of the next chunk into this one
+            Chunk next = c.next;
+            System.arraycopy(next.entries, 0, c.entries, c.count, next.count);
+            c.count += next.count;
+            this.unlinkChunk(next);
+        }
+        this.cursor = c;
+        this.offset = i;
+
+        assert this.conventionHolds();
+        return x;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //moves the cursor past the front of this.right
+        if (this.offset == this.cursor.count) {
+            this.cursor = this.cursor.next;
+            this.offset = 0;
+        }
+        this.offset++;
+        this.leftLength++;
+        this.rightLength--;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+
+        this.cursor = this.preStart;
+        this.offset = 0;
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+
+        assert this.conventionHolds();
+
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List4}.
+     */
+    private final class List4Iterator implements Iterator<T> {
+
+        /**
+         * Current chunk in the linked list.
+         */
+        private Chunk current;
+
+        /**
+         * Position of the next entry in the current chunk.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private List4Iterator() {
+            this.current = List4.this.preStart.next;
+            this.index = 0;
+            assert List4.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != List4.this.postFinish;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = this.current.entry(this.index);
+            this.index++;
+            if (this.index == this.current.count) {
+                this.current = this.current.next;
+                this.index = 0;
+            }
+            assert List4.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+
+        this.cursor = this.postFinish.previous;
+        this.offset = this.cursor.count;
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        //moves the cursor back before the end of this.left
+        if (this.offset == 0) {
+            this.cursor = this.cursor.previous;
+            this.offset = this.cursor.count;
+        }
+        this.offset--;
+        this.leftLength--;
+        this.rightLength++;
+
+        assert this.conventionHolds();
+    }
+
+}
@@ -0,0 +1,354 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as a gap buffer, done "bare-handed": the entries
+ * are kept in one array, this.left at the front of it and this.right at the
+ * back, with the unused part of the array (the "gap") between them.
+ *
+ * <p>
+ * Adding and removing at the cursor, {@code advance}, and {@code retreat}
+ * move at most one entry and do not allocate. When the gap fills up the array
+ * is doubled, and when fewer than a quarter of its places are in use it is
+ * halved, so the amortized execution-time performance of
+ * {@code addRightFront} and {@code removeRightFront} is O(1).
+ * {@code moveToStart} and {@code moveToFinish} move the entries on one side
+ * of the gap to the other, so they take time proportional to |this.left| and
+ * |this.right|, respectively. Iteration reads the array in order.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * [$this.entries is not null]  and
+ * |$this.entries| >= MIN_CAPACITY  and
+ * 0 <= $this.leftLength <= $this.gapEnd <= |$this.entries|  and
+ * [$this.entries[i] is not null exactly when i < $this.leftLength or
+ *  $this.gapEnd <= i]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ($this.entries[0, $this.leftLength),
+ *   $this.entries[$this.gapEnd, |$this.entries|))
+ * </pre>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public class List5<T> extends ListSecondary<T> {
+
+    /**
+     * Smallest length of the entries array.
+     */
+    private static final int MIN_CAPACITY = 8;
+
+    /**
+     * Factor by which the entries array grows when the gap fills up.
+     */
+    private static final int GROWTH_FACTOR = 2;
+
+    /**
+     * The array is shrunk when the list uses fewer than 1 / SHRINK_RATIO of
+     * its places.
+     */
+    private static final int SHRINK_RATIO = 4;
+
+    /**
+     * Entries of this.left, then the gap, then the entries of this.right.
+     */
+    private Object[] entries;
+
+    /**
+     * Length of this.left, which is also the index of the start of the gap.
+     */
+    private int leftLength;
+
+    /**
+     * Index of the first entry of this.right, just past the end of the gap.
+     */
+    private int gapEnd;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * [$this.entries is not null]  and
+     * |$this.entries| >= MIN_CAPACITY  and
+     * 0 <= $this.leftLength <= $this.gapEnd <= |$this.entries|  and
+     * [$this.entries[i] is not null exactly when i < $this.leftLength or
+     *  $this.gapEnd <= i]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.entries != null : "Violation of: $this.entries is not null";
+        assert this.entries.length >= MIN_CAPACITY : ""
+                + "Violation of: |$this.entries| >= MIN_CAPACITY";
+        assert 0 <= this.leftLength && this.leftLength <= this.gapEnd
+                && this.gapEnd <= this.entries.length : ""
+                        + "Violation of: 0 <= $this.leftLength <= $this.gapEnd"
+                        + " <= |$this.entries|";
+        for (int i = 0; i < this.entries.length; i++) {
+            boolean inUse = i < this.leftLength || this.gapEnd <= i;
+            assert (this.entries[i] != null) == inUse : ""
+                    + "Violation of: [$this.entries[i] is not null exactly"
+                    + " when i < $this.leftLength or $this.gapEnd <= i]";
+        }
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.entries = new Object[MIN_CAPACITY];
+        this.leftLength = 0;
+        this.gapEnd = MIN_CAPACITY;
+
+    }
+
+    /**
+     * Copies the entries into a new array of length {@code capacity}, keeping
+     * this.left at the front and this.right at the back.
+     *
+     * @param capacity
+     *            the length of the new array
+     * @requires capacity >= MIN_CAPACITY and
+     *           capacity >= |this.left| + |this.right|
+     */
+    private void resize(int capacity) {
+        int rightLength = this.entries.length - this.gapEnd;
+        Object[] newEntries = new Object[capacity];
+        System.arraycopy(this.entries, 0, newEntries, 0, this.leftLength);
+        System.arraycopy(this.entries, this.gapEnd, newEntries,
+                capacity - rightLength, rightLength);
+        this.entries = newEntries;
+        this.gapEnd = capacity - rightLength;
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List5() {
+
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List5<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List5<?> : ""
+                + "Violation of: source is of dynamic type List5<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List5<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List5<T> localSource = (List5<T>) source;
+        this.entries = localSource.entries;
+        this.leftLength = localSource.leftLength;
+        this.gapEnd = localSource.gapEnd;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        //makes room when the gap is used up, then puts x at its end
+        if (this.leftLength == this.gapEnd) {
+            this.resize(this.entries.length * GROWTH_FACTOR);
+        }
+        this.gapEnd--;
+        this.entries[this.gapEnd] = x;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //takes the entry just after the gap and widens the gap over it
+        @SuppressWarnings("unchecked")
+        T x = (T) this.entries[this.gapEnd];
+        this.entries[this.gapEnd] = null;
+        this.gapEnd++;
+        int length = this.leftLength + this.entries.length - this.gapEnd;
+        if (this.entries.length > MIN_CAPACITY
+                && length * SHRINK_RATIO < this.entries.length) {
+            this.resize(Math.max(MIN_CAPACITY,
+                    this.entries.length / GROWTH_FACTOR));
+        }
+
+        assert this.conventionHolds();
+        return x;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //moves the entry just after the gap to just before it
+        if (this.leftLength != this.gapEnd) {
+            this.entries[this.leftLength] = this.entries[this.gapEnd];
+            this.entries[this.gapEnd] = null;
+        }
+        this.leftLength++;
+        this.gapEnd++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+
+        //moves all of this.left to just before this.right
+        int newGapEnd = this.gapEnd - this.leftLength;
+        System.arraycopy(this.entries, 0, this.entries, newGapEnd,
+                this.leftLength);
+        Arrays.fill(this.entries, 0, Math.min(this.leftLength, newGapEnd),
+                null);
+        this.gapEnd = newGapEnd;
+        this.leftLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+
+        assert this.conventionHolds();
+
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+
+        assert this.conventionHolds();
+        return this.entries.length - this.gapEnd;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List5Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List5}.
+     */
+    private final class List5Iterator implements Iterator<T> {
+
+        /**
+         * Index of the next entry in the entries array.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private List5Iterator() {
+            this.index = (List5.this.leftLength > 0) ? 0 : List5.this.gapEnd;
+            assert List5.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < List5.this.entries.length;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            @SuppressWarnings("unchecked")
+            T x = (T) List5.this.entries[this.index];
+            this.index++;
+            if (this.index == List5.this.leftLength) {
+                this.index = List5.this.gapEnd;
+            }
+            assert List5.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+
+        //moves all of this.right to just after this.left
+        int rightLength = this.entries.length - this.gapEnd;
+        int newLeftLength = this.leftLength + rightLength;
+        System.arraycopy(this.entries, this.gapEnd, this.entries,
+                this.leftLength, rightLength);
+        Arrays.fill(this.entries, Math.max(this.gapEnd, newLeftLength),
+                this.entries.length, null);
+        this.leftLength = newLeftLength;
+        this.gapEnd = this.entries.length;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        //moves the entry just before the gap to just after it
+        this.leftLength--;
+        this.gapEnd--;
+        if (this.leftLength != this.gapEnd) {
+            this.entries[this.gapEnd] = this.entries[this.leftLength];
+            this.entries[this.leftLength] = null;
+        }
+
+        assert this.conventionHolds();
+    }
+
+}
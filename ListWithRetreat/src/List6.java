@@ -0,0 +1,786 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as a doubly linked list, like {@code List3}, but
+ * with the nodes kept off the Java heap: each node is a fixed-size record
+ * (slot) in a direct {@code ByteBuffer}, holding the indices of the next and
+ * previous slots followed by the entry, encoded by a {@code List6.Codec}.
+ *
+ * <p>
+ * Since the nodes are neither objects nor referenced from objects, a
+ * {@code List6} adds nothing for the garbage collector to scan however long
+ * it gets; entries are decoded into new objects only when they are read.
+ * Slot 0 is the "smart node" before the start and slot 1 the one after the
+ * finish. Slots freed by {@code removeRightFront} go on a free list and are
+ * reused.
+ * </p>
+ *
+ * <p>
+ * The slots are kept in segments (buffers) of at most MAX_SEGMENT_BYTES
+ * bytes, and slot s is in segment s / this.segmentSlots. While the list fits
+ * in one segment, that segment doubles in size when it fills up; after that,
+ * segments are added one at a time and no slot is ever copied. So the
+ * amortized execution-time performance of all methods implemented in this
+ * class is O(1) (plus the cost of encoding or decoding an entry), and
+ * growing never needs more than one extra segment of memory. Slot indices
+ * are {@code int}s, so a list holds at most 2^31 - this.segmentSlots - 2
+ * entries (more than 2.1 billion for the codecs below); {@code addRightFront}
+ * throws {@code IllegalStateException} when it is full.
+ * </p>
+ *
+ * <p>
+ * {@code clear}, {@code transferFrom}, and {@code close} drop the buffers
+ * they give up, and the garbage collector frees their memory once nothing
+ * else (an iterator, say) still uses them. It is never freed any earlier,
+ * so a buffer still in use cannot be left pointing at freed memory. After
+ * {@code close} the only methods that may be called are {@code close} and
+ * {@code clear}, which starts over with new memory.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * [$this.codec is not null]  and
+ * $this.slotSize = LINKS_SIZE + $this.codec.width()  and
+ * $this.segmentSlots is a power of 2  and
+ * [if $this.segments is null then this has been closed, else:
+ *  $this.leftLength >= 0  and
+ *  [$this.rightLength >= 0] and
+ *  2 <= $this.used <= $this.capacity  and
+ *  [$this.segments hold slots 0 through $this.capacity - 1, slot s at
+ *   offset (s mod $this.segmentSlots) * $this.slotSize in segment
+ *   s / $this.segmentSlots]  and
+ *  [slot PRE_START is the first slot of a doubly linked list (through next
+ *   and previous) containing ($this.leftLength + $this.rightLength + 2)
+ *   slots, the last of which is slot POST_FINISH]  and
+ *  [$this.lastLeft is the ($this.leftLength + 1)-th slot in that doubly
+ *   linked list]  and
+ *  [for every slot s in the doubly linked list, except PRE_START,
+ *   next(previous(s)) = s]  and
+ *  [for every slot s in the doubly linked list, except POST_FINISH,
+ *   previous(next(s)) = s]  and
+ *  [$this.free is NONE or the first slot of a singly linked list (through
+ *   next) of the slots below $this.used that are not in the doubly linked
+ *   list, ending with NONE]]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([entries decoded from slots starting at next(PRE_START) and running
+ *    through $this.lastLeft],
+ *   [entries decoded from slots starting at next($this.lastLeft) and
+ *    running through previous(POST_FINISH)])
+ * </pre>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public class List6<T> extends ListSecondary<T> implements AutoCloseable {
+
+    /**
+     * Fixed-width binary encoding of entries of type {@code T}.
+     *
+     * @param <T>
+     *            type of entries encoded
+     */
+    public interface Codec<T> {
+
+        /**
+         * Reports the number of bytes every encoded entry takes.
+         *
+         * @return the width of an encoded entry
+         * @ensures width > 0
+         */
+        int width();
+
+        /**
+         * Encodes {@code x} into {@code width()} bytes of {@code buffer},
+         * starting at {@code offset}. A codec for entries that may not fit
+         * must check before writing anything, since writing past the
+         * {@code width()} bytes would overwrite the links of the next slot.
+         *
+         * @param buffer
+         *            the buffer to write to
+         * @param offset
+         *            where in the buffer to write
+         * @param x
+         *            the entry to encode
+         * @throws IllegalArgumentException
+         *             if x cannot be encoded in width() bytes, in which case
+         *             buffer is not changed
+         * @updates buffer
+         * @requires x is not null
+         */
+        void write(ByteBuffer buffer, int offset, T x);
+
+        /**
+         * Decodes and returns the entry encoded in {@code width()} bytes of
+         * {@code buffer}, starting at {@code offset}.
+         *
+         * @param buffer
+         *            the buffer to read from
+         * @param offset
+         *            where in the buffer to read
+         * @return the decoded entry
+         * @requires [those bytes were written by write]
+         */
+        T read(ByteBuffer buffer, int offset);
+
+    }
+
+    /**
+     * Codec for {@code Integer} entries.
+     */
+    public static final Codec<Integer> INTEGER_CODEC = new Codec<Integer>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer x) {
+            buffer.putInt(offset, x);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    /**
+     * Codec for {@code Long} entries.
+     */
+    public static final Codec<Long> LONG_CODEC = new Codec<Long>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long x) {
+            buffer.putLong(offset, x);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    /**
+     * Slot of the "smart node" before the start of the list.
+     */
+    private static final int PRE_START = 0;
+
+    /**
+     * Slot of the "smart node" after the finish of the list.
+     */
+    private static final int POST_FINISH = 1;
+
+    /**
+     * Link value meaning "no slot".
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Offset within a slot of the index of the next slot.
+     */
+    private static final int NEXT = 0;
+
+    /**
+     * Offset within a slot of the index of the previous slot.
+     */
+    private static final int PREVIOUS = Integer.BYTES;
+
+    /**
+     * Bytes at the start of each slot taken by the next and previous links.
+     */
+    private static final int LINKS_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * Initial number of slots, including the two "smart node" slots.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Largest number of bytes in one segment (unless a slot is so big that
+     * fewer than INITIAL_CAPACITY slots would fit).
+     */
+    private static final int MAX_SEGMENT_BYTES = 1 << 24;
+
+    /**
+     * Encoding of entries.
+     */
+    private final Codec<T> codec;
+
+    /**
+     * Number of bytes in each slot.
+     */
+    private final int slotSize;
+
+    /**
+     * Number of slots in a full segment (a power of 2).
+     */
+    private final int segmentSlots;
+
+    /**
+     * log2(this.segmentSlots).
+     */
+    private final int segmentShift;
+
+    /**
+     * Off-heap memory holding the slots, or null once closed.
+     */
+    private ByteBuffer[] segments;
+
+    /**
+     * Number of slots in the segments.
+     */
+    private int capacity;
+
+    /**
+     * First free slot, or NONE if there are none.
+     */
+    private int free;
+
+    /**
+     * Number of slots that have ever been in the list; the slots from here to
+     * this.capacity have never been used.
+     */
+    private int used;
+
+    /**
+     * Last slot of doubly linked list in this.left.
+     */
+    private int lastLeft;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Returns the segment holding slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @return the segment
+     */
+    private ByteBuffer segment(int s) {
+        return this.segments[s >>> this.segmentShift];
+    }
+
+    /**
+     * Returns the offset of slot {@code s} within its segment.
+     *
+     * @param s
+     *            the slot
+     * @return the offset
+     */
+    private int offset(int s) {
+        return (s & (this.segmentSlots - 1)) * this.slotSize;
+    }
+
+    /**
+     * Returns the index of the slot after slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @return next(s)
+     */
+    private int next(int s) {
+        return this.segment(s).getInt(this.offset(s) + NEXT);
+    }
+
+    /**
+     * Returns the index of the slot before slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @return previous(s)
+     */
+    private int previous(int s) {
+        return this.segment(s).getInt(this.offset(s) + PREVIOUS);
+    }
+
+    /**
+     * Sets the index of the slot after slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @param n
+     *            the new next slot
+     */
+    private void setNext(int s, int n) {
+        this.segment(s).putInt(this.offset(s) + NEXT, n);
+    }
+
+    /**
+     * Sets the index of the slot before slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @param p
+     *            the new previous slot
+     */
+    private void setPrevious(int s, int p) {
+        this.segment(s).putInt(this.offset(s) + PREVIOUS, p);
+    }
+
+    /**
+     * Decodes and returns the entry in slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @return the entry
+     */
+    private T entry(int s) {
+        return this.codec.read(this.segment(s), this.offset(s) + LINKS_SIZE);
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * [$this.segments is not null]  and
+     * $this.leftLength >= 0  and
+     * [$this.rightLength >= 0] and
+     * 2 <= $this.used <= $this.capacity  and
+     * [$this.segments hold slots 0 through $this.capacity - 1]  and
+     * [slot PRE_START is the first slot of a doubly linked list (through
+     *  next and previous) containing ($this.leftLength + $this.rightLength +
+     *  2) slots, the last of which is slot POST_FINISH]  and
+     * [$this.lastLeft is the ($this.leftLength + 1)-th slot in that doubly
+     *  linked list]  and
+     * [for every slot s in the doubly linked list, except POST_FINISH,
+     *  previous(next(s)) = s]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.segments != null : "Violation of: this is not closed";
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert 2 <= this.used && this.used <= this.capacity : ""
+                + "Violation of: 2 <= $this.used <= $this.capacity";
+        assert this.segments.length == ((this.capacity - 1)
+                >>> this.segmentShift) + 1
+                && this.segments[0].capacity() == Math.min(this.capacity,
+                        this.segmentSlots) * this.slotSize : ""
+                                + "Violation of: [$this.segments hold slots 0"
+                                + " through $this.capacity - 1]";
+
+        int count = 0;
+        boolean lastLeftFound = false;
+        int s = PRE_START;
+        while ((count < this.leftLength + this.rightLength + 1)
+                && (s != POST_FINISH)) {
+            count++;
+            if (s == this.lastLeft) {
+                assert count == this.leftLength + 1 : ""
+                        + "Violation of: [$this.lastLeft is the"
+                        + " ($this.leftLength + 1)-th slot in that doubly"
+                        + " linked list]";
+                lastLeftFound = true;
+            }
+            int n = this.next(s);
+            assert (0 <= n && n < this.used) && (this.previous(n) == s) : ""
+                    + "Violation of: [for every slot s in the doubly linked"
+                    + " list, except POST_FINISH, previous(next(s)) = s]";
+            s = n;
+        }
+        count++;
+        assert count == this.leftLength + this.rightLength + 2 : ""
+                + "Violation of: [slot PRE_START is the first slot of a doubly"
+                + " linked list containing"
+                + " ($this.leftLength + $this.rightLength + 2) slots]";
+        assert lastLeftFound : ""
+                + "Violation of: [$this.lastLeft is the ($this.leftLength + 1)"
+                + "-th slot in that doubly linked list]";
+        assert s == POST_FINISH : ""
+                + "Violation of: [the last slot of that doubly linked list is"
+                + " slot POST_FINISH]";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.capacity = INITIAL_CAPACITY;
+        this.segments = new ByteBuffer[] {
+                ByteBuffer.allocateDirect(this.capacity * this.slotSize) };
+        this.setNext(PRE_START, POST_FINISH);
+        this.setPrevious(POST_FINISH, PRE_START);
+        this.setNext(POST_FINISH, NONE);
+        this.setPrevious(PRE_START, NONE);
+        this.free = NONE;
+        this.used = 2;
+        this.lastLeft = PRE_START;
+        this.leftLength = 0;
+        this.rightLength = 0;
+
+    }
+
+    /**
+     * Takes a slot off the free list or, if there are no free slots, one that
+     * has never been used, first adding memory if there are none of those
+     * either: segment 0 doubles until it is full, and after that a full
+     * segment is added.
+     *
+     * @return the slot
+     * @throws IllegalStateException
+     *             if every slot index is in use
+     */
+    private int allocateSlot() {
+        int s = this.free;
+        if (s != NONE) {
+            this.free = this.next(s);
+        } else {
+            if (this.used == this.capacity) {
+                if (this.capacity < this.segmentSlots) {
+                    ByteBuffer[] old = this.segments;
+                    ByteBuffer bigger = ByteBuffer
+                            .allocateDirect(2 * this.capacity * this.slotSize);
+                    bigger.put(old[0].duplicate().clear());
+                    this.segments = new ByteBuffer[] { bigger };
+                    this.capacity = 2 * this.capacity;
+                } else {
+                    if (this.capacity > Integer.MAX_VALUE - this.segmentSlots) {
+                        throw new IllegalStateException("List6 is full: "
+                                + (this.capacity - 2) + " entries");
+                    }
+                    int count = this.segments.length;
+                    this.segments = Arrays.copyOf(this.segments, count + 1);
+                    this.segments[count] = ByteBuffer
+                            .allocateDirect(this.segmentSlots * this.slotSize);
+                    this.capacity += this.segmentSlots;
+                }
+            }
+            s = this.used;
+            this.used++;
+        }
+        return s;
+    }
+
+    /**
+     * Constructor from the encoding to use for entries.
+     *
+     * @param codec
+     *            the fixed-width encoding of entries
+     * @requires codec is not null
+     */
+    public List6(Codec<T> codec) {
+        assert codec != null : "Violation of: codec is not null";
+
+        this.codec = codec;
+        this.slotSize = LINKS_SIZE + codec.width();
+        this.segmentSlots = Math.max(INITIAL_CAPACITY,
+                Integer.highestOneBit(MAX_SEGMENT_BYTES / this.slotSize));
+        this.segmentShift = Integer.numberOfTrailingZeros(this.segmentSlots);
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final List6<T> newInstance() {
+        return new List6<T>(this.codec);
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The memory that held {@code this} is freed, and {@code this} takes over
+     * the memory of {@code source} without copying it.
+     * </p>
+     */
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List6<?> : ""
+                + "Violation of: source is of dynamic type List6<?>";
+        assert source != this : "Violation of: source is not this";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List6<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List6<T> localSource = (List6<T>) source;
+        assert localSource.codec.getClass() == this.codec.getClass()
+                && localSource.slotSize == this.slotSize : ""
+                        + "Violation of: [source.codec encodes entries as"
+                        + " this.codec does]";
+        this.segments = localSource.segments;
+        this.capacity = localSource.capacity;
+        this.free = localSource.free;
+        this.used = localSource.used;
+        this.lastLeft = localSource.lastLeft;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        //encodes x into a free slot and links it in after the last left slot
+        int s = this.allocateSlot();
+        int after = this.next(this.lastLeft);
+        try {
+            this.codec.write(this.segment(s), this.offset(s) + LINKS_SIZE, x);
+        } catch (IllegalArgumentException e) {
+            //x does not fit: the slot goes back on the free list
+            this.setNext(s, this.free);
+            this.free = s;
+            throw e;
+        }
+        this.setNext(s, after);
+        this.setPrevious(s, this.lastLeft);
+        this.setPrevious(after, s);
+        this.setNext(this.lastLeft, s);
+        this.rightLength++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //unlinks the slot after the last left slot and frees it
+        int s = this.next(this.lastLeft);
+        int after = this.next(s);
+        T x = this.entry(s);
+        this.setNext(this.lastLeft, after);
+        this.setPrevious(after, this.lastLeft);
+        this.setNext(s, this.free);
+        this.free = s;
+        this.rightLength--;
+
+        assert this.conventionHolds();
+        return x;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        this.lastLeft = this.next(this.lastLeft);
+        this.leftLength++;
+        this.rightLength--;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+
+        this.lastLeft = PRE_START;
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+
+        assert this.conventionHolds();
+
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List6Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List6}.
+     */
+    private final class List6Iterator implements Iterator<T> {
+
+        /**
+         * Current slot in the linked list.
+         */
+        private int current;
+
+        /**
+         * No-argument constructor.
+         */
+        private List6Iterator() {
+            this.current = List6.this.next(PRE_START);
+            assert List6.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != POST_FINISH;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = List6.this.entry(this.current);
+            this.current = List6.this.next(this.current);
+            assert List6.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+
+        this.lastLeft = this.previous(POST_FINISH);
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        this.lastLeft = this.previous(this.lastLeft);
+        this.leftLength--;
+        this.rightLength++;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Gives up the off-heap memory holding {@code this}, for the garbage
+     * collector to free (see above). Afterwards only {@code close} and
+     * {@code clear} may be called on {@code this}.
+     */
+    @Override
+    public final void close() {
+        this.segments = null;
+        this.capacity = 0;
+        this.free = NONE;
+        this.used = 0;
+        this.lastLeft = PRE_START;
+        this.leftLength = 0;
+        this.rightLength = 0;
+    }
+
+    /*
+     * Codecs for common entry types ------------------------------------------
+     */
+
+    /**
+     * Returns the codec for {@code Integer} entries.
+     *
+     * @return INTEGER_CODEC
+     */
+    public static Codec<Integer> integerCodec() {
+        return INTEGER_CODEC;
+    }
+
+    /**
+     * Returns the codec for {@code Long} entries.
+     *
+     * @return LONG_CODEC
+     */
+    public static Codec<Long> longCodec() {
+        return LONG_CODEC;
+    }
+
+    /**
+     * Returns a codec for {@code String} entries whose UTF-8 encodings take at
+     * most {@code maxBytes} bytes.
+     *
+     * @param maxBytes
+     *            the largest number of bytes in an encoded entry
+     * @return the codec
+     * @throws IllegalArgumentException
+     *             unless 0 < maxBytes <= Short.MAX_VALUE, since the length of
+     *             an encoding is stored in a {@code short}
+     */
+    public static Codec<String> stringCodec(final int maxBytes) {
+        if (maxBytes <= 0 || maxBytes > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("maxBytes = " + maxBytes
+                    + " is not in 1.." + Short.MAX_VALUE);
+        }
+        return new Codec<String>() {
+            @Override
+            public int width() {
+                return Short.BYTES + maxBytes;
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, String x) {
+                byte[] bytes = x.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > maxBytes) {
+                    throw new IllegalArgumentException("\"" + x + "\" takes "
+                            + bytes.length + " bytes in UTF-8, more than "
+                            + maxBytes);
+                }
+                buffer.putShort(offset, (short) bytes.length);
+                buffer.put(offset + Short.BYTES, bytes);
+            }
+
+            @Override
+            public String read(ByteBuffer buffer, int offset) {
+                byte[] bytes = new byte[buffer.getShort(offset)];
+                buffer.get(offset + Short.BYTES, bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+}
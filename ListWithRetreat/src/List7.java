@@ -0,0 +1,1074 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as a doubly linked list of fixed-size slots, like
+ * {@code List6}, but kept in a memory-mapped file, so that the list outlives
+ * the program and is there again, as it was, when the file is next opened.
+ *
+ * <p>
+ * The file starts with a header of HEADER_SIZE bytes recording the slot
+ * size, the number of slots, the first free slot, the number of slots ever
+ * used, the last left slot, the lengths of this.left and this.right, and
+ * whether the file is dirty; the slots follow, each holding the indices of
+ * the next and previous slots and then the entry, encoded by a
+ * {@code List6.Codec}. Every method that changes the entries writes its
+ * changes straight into the mapped file, header included. Methods that only
+ * move the cursor ({@code advance}, {@code retreat}, {@code moveToStart}, and
+ * {@code moveToFinish}) write nothing; the cursor goes into the header with
+ * the next change to the entries, or with {@code force} or {@code close}, so
+ * moving around a list costs no I/O. Opening a list again only maps the file
+ * and reads the header: it takes the same short time however long the list
+ * is, and no entry is decoded or relinked.
+ * </p>
+ *
+ * <p>
+ * The slots are mapped in segments of at most MAX_SEGMENT_BYTES bytes, so a
+ * list can take more than the 2 GB one mapping can hold. While the list
+ * fits in one segment, that segment doubles in size when it fills up; after
+ * that, segments are added one at a time. Neither copies any slot, so the
+ * amortized execution-time performance of all methods implemented in this
+ * class is O(1) (plus the cost of encoding or decoding an entry). Slots freed
+ * by {@code removeRightFront} are reused, but the file never shrinks.
+ * </p>
+ *
+ * <p>
+ * The operating system writes the changes to the disk in its own time;
+ * {@code force} waits until they are all there. If the program or the
+ * machine stops while a method is running, or (for the machine) before the
+ * next {@code force}, the file may be left inconsistent. To detect this, the
+ * first change after the file is opened, forced, or closed marks the header
+ * dirty, and waits until that mark is on the disk before changing anything
+ * else; {@code force} and {@code close} clear the mark once everything else
+ * is on the disk. Opening a dirty file rebuilds the list from the next links,
+ * starting at PRE_START: the previous links, the lengths, and the free list
+ * are rebuilt from them, and the cursor goes back to the last left slot
+ * recorded if it is still in the list, or to the start if it is not. If the
+ * next links do not lead to POST_FINISH, or the header does not fit the
+ * file, the constructor throws {@code UncheckedIOException} rather than open
+ * a broken list. (After a machine crash the recovered list may still hold
+ * entries from before the last {@code force}; after any crash the cursor may
+ * be back where it was last written.) {@code close} forces the
+ * changes and gives up the file; after that the only method that may be
+ * called is {@code close}.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * [$this.codec is not null]  and
+ * $this.slotSize = LINKS_SIZE + $this.codec.width()  and
+ * [if $this.header is null then this has been closed, else:
+ *  [$this.header holds $this.capacity, $this.free, and $this.used]  and
+ *  [if $this.cursorSaved then $this.header holds $this.lastLeft,
+ *   $this.leftLength, and $this.rightLength]  and
+ *  $this.leftLength >= 0  and
+ *  [$this.rightLength >= 0] and
+ *  2 <= $this.used <= $this.capacity  and
+ *  [$this.segments map slots 0 through $this.capacity - 1 of the file]  and
+ *  [slot PRE_START is the first slot of a doubly linked list (through next
+ *   and previous) containing ($this.leftLength + $this.rightLength + 2)
+ *   slots, the last of which is slot POST_FINISH]  and
+ *  [$this.lastLeft is the ($this.leftLength + 1)-th slot in that doubly
+ *   linked list]  and
+ *  [for every slot s in the doubly linked list, except PRE_START,
+ *   next(previous(s)) = s]  and
+ *  [for every slot s in the doubly linked list, except POST_FINISH,
+ *   previous(next(s)) = s]  and
+ *  [$this.free is NONE or the first slot of a singly linked list (through
+ *   next) of the slots below $this.used that are not in the doubly linked
+ *   list, ending with NONE]]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([entries decoded from slots starting at next(PRE_START) and running
+ *    through $this.lastLeft],
+ *   [entries decoded from slots starting at next($this.lastLeft) and
+ *    running through previous(POST_FINISH)])
+ * </pre>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public class List7<T> extends ListSecondary<T> implements AutoCloseable {
+
+    /**
+     * Slot of the "smart node" before the start of the list.
+     */
+    private static final int PRE_START = 0;
+
+    /**
+     * Slot of the "smart node" after the finish of the list.
+     */
+    private static final int POST_FINISH = 1;
+
+    /**
+     * Link value meaning "no slot".
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Offset within a slot of the index of the next slot.
+     */
+    private static final int NEXT = 0;
+
+    /**
+     * Offset within a slot of the index of the previous slot.
+     */
+    private static final int PREVIOUS = Integer.BYTES;
+
+    /**
+     * Bytes at the start of each slot taken by the next and previous links.
+     */
+    private static final int LINKS_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * Initial number of slots, including the two "smart node" slots.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Largest number of bytes mapped in one segment.
+     */
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+    /**
+     * Number of bytes at the start of the file taken by the header.
+     */
+    private static final int HEADER_SIZE = 64;
+
+    /**
+     * First four bytes of the file ("L7" and format version 1).
+     */
+    private static final int MAGIC = 0x4C370001;
+
+    /**
+     * Offset within the header of MAGIC.
+     */
+    private static final int MAGIC_AT = 0;
+
+    /**
+     * Offset within the header of the slot size.
+     */
+    private static final int SLOT_SIZE_AT = 4;
+
+    /**
+     * Offset within the header of the number of slots.
+     */
+    private static final int CAPACITY_AT = 8;
+
+    /**
+     * Offset within the header of the first free slot.
+     */
+    private static final int FREE_AT = 12;
+
+    /**
+     * Offset within the header of the number of slots ever used.
+     */
+    private static final int USED_AT = 16;
+
+    /**
+     * Offset within the header of the last left slot.
+     */
+    private static final int LAST_LEFT_AT = 20;
+
+    /**
+     * Offset within the header of the length of this.left.
+     */
+    private static final int LEFT_LENGTH_AT = 24;
+
+    /**
+     * Offset within the header of the length of this.right.
+     */
+    private static final int RIGHT_LENGTH_AT = 28;
+
+    /**
+     * Offset within the header of the dirty mark: 1 if the file may have been
+     * changed since it was last forced, 0 if not.
+     */
+    private static final int DIRTY_AT = 32;
+
+    /**
+     * Directory holding the files of lists made without a file, or null
+     * until the first is made.
+     */
+    private static Path scratchDirectory;
+
+    /**
+     * Encoding of entries.
+     */
+    private final List6.Codec<T> codec;
+
+    /**
+     * Number of bytes in each slot.
+     */
+    private final int slotSize;
+
+    /**
+     * Number of slots in a full segment (a power of 2).
+     */
+    private final int segmentSlots;
+
+    /**
+     * log2(this.segmentSlots).
+     */
+    private final int segmentShift;
+
+    /**
+     * The file holding the list.
+     */
+    private final Path file;
+
+    /**
+     * Channel the file is mapped through, or null once closed.
+     */
+    private FileChannel channel;
+
+    /**
+     * The mapped header, or null once closed.
+     */
+    private MappedByteBuffer header;
+
+    /**
+     * The mapped segments of slots.
+     */
+    private MappedByteBuffer[] segments;
+
+    /**
+     * Number of slots mapped.
+     */
+    private int capacity;
+
+    /**
+     * First free slot, or NONE if there are none.
+     */
+    private int free;
+
+    /**
+     * Number of slots that have ever been in the list; the slots from here to
+     * this.capacity have never been used.
+     */
+    private int used;
+
+    /**
+     * Last slot of doubly linked list in this.left.
+     */
+    private int lastLeft;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Whether the header is marked dirty.
+     */
+    private boolean dirty;
+
+    /**
+     * Whether the cursor in the header is the current one; false once the
+     * cursor has moved without being written.
+     */
+    private boolean cursorSaved;
+
+    /**
+     * Whether the file is in the scratch directory, to be deleted by
+     * {@code close}.
+     */
+    private final boolean temporary;
+
+    /**
+     * Returns the segment holding slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @return the segment
+     */
+    private ByteBuffer segment(int s) {
+        return this.segments[s >>> this.segmentShift];
+    }
+
+    /**
+     * Returns the offset of slot {@code s} within its segment.
+     *
+     * @param s
+     *            the slot
+     * @return the offset
+     */
+    private int offset(int s) {
+        return (s & (this.segmentSlots - 1)) * this.slotSize;
+    }
+
+    /**
+     * Returns the index of the slot after slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @return next(s)
+     */
+    private int next(int s) {
+        return this.segment(s).getInt(this.offset(s) + NEXT);
+    }
+
+    /**
+     * Returns the index of the slot before slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @return previous(s)
+     */
+    private int previous(int s) {
+        return this.segment(s).getInt(this.offset(s) + PREVIOUS);
+    }
+
+    /**
+     * Sets the index of the slot after slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @param n
+     *            the new next slot
+     */
+    private void setNext(int s, int n) {
+        this.segment(s).putInt(this.offset(s) + NEXT, n);
+    }
+
+    /**
+     * Sets the index of the slot before slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @param p
+     *            the new previous slot
+     */
+    private void setPrevious(int s, int p) {
+        this.segment(s).putInt(this.offset(s) + PREVIOUS, p);
+    }
+
+    /**
+     * Decodes and returns the entry in slot {@code s}.
+     *
+     * @param s
+     *            the slot
+     * @return the entry
+     */
+    private T entry(int s) {
+        return this.codec.read(this.segment(s), this.offset(s) + LINKS_SIZE);
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * [$this.header is not null]  and
+     * [$this.header holds $this.capacity, $this.free, and $this.used]  and
+     * [if $this.cursorSaved then $this.header holds $this.lastLeft,
+     *  $this.leftLength, and $this.rightLength]  and
+     * $this.leftLength >= 0  and
+     * [$this.rightLength >= 0] and
+     * 2 <= $this.used <= $this.capacity  and
+     * [slot PRE_START is the first slot of a doubly linked list (through
+     *  next and previous) containing ($this.leftLength + $this.rightLength +
+     *  2) slots, the last of which is slot POST_FINISH]  and
+     * [$this.lastLeft is the ($this.leftLength + 1)-th slot in that doubly
+     *  linked list]  and
+     * [for every slot s in the doubly linked list, except POST_FINISH,
+     *  previous(next(s)) = s]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.header != null : "Violation of: this is not closed";
+        assert this.header.getInt(CAPACITY_AT) == this.capacity
+                && this.header.getInt(FREE_AT) == this.free
+                && this.header.getInt(USED_AT) == this.used : ""
+                        + "Violation of: [$this.header holds the fields]";
+        assert !this.cursorSaved
+                || (this.header.getInt(LAST_LEFT_AT) == this.lastLeft
+                        && this.header.getInt(LEFT_LENGTH_AT) == this.leftLength
+                        && this.header.getInt(
+                                RIGHT_LENGTH_AT) == this.rightLength) : ""
+                                        + "Violation of: [$this.header holds"
+                                        + " the cursor]";
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert 2 <= this.used && this.used <= this.capacity : ""
+                + "Violation of: 2 <= $this.used <= $this.capacity";
+
+        int count = 0;
+        boolean lastLeftFound = false;
+        int s = PRE_START;
+        while ((count < this.leftLength + this.rightLength + 1)
+                && (s != POST_FINISH)) {
+            count++;
+            if (s == this.lastLeft) {
+                assert count == this.leftLength + 1 : ""
+                        + "Violation of: [$this.lastLeft is the"
+                        + " ($this.leftLength + 1)-th slot in that doubly"
+                        + " linked list]";
+                lastLeftFound = true;
+            }
+            int n = this.next(s);
+            assert (0 <= n && n < this.used) && (this.previous(n) == s) : ""
+                    + "Violation of: [for every slot s in the doubly linked"
+                    + " list, except POST_FINISH, previous(next(s)) = s]";
+            s = n;
+        }
+        count++;
+        assert count == this.leftLength + this.rightLength + 2 : ""
+                + "Violation of: [slot PRE_START is the first slot of a doubly"
+                + " linked list containing"
+                + " ($this.leftLength + $this.rightLength + 2) slots]";
+        assert lastLeftFound : ""
+                + "Violation of: [$this.lastLeft is the ($this.leftLength + 1)"
+                + "-th slot in that doubly linked list]";
+        assert s == POST_FINISH : ""
+                + "Violation of: [the last slot of that doubly linked list is"
+                + " slot POST_FINISH]";
+
+        return true;
+    }
+
+    /**
+     * Marks the header dirty, if it is not already, and waits until the mark
+     * is on the disk. Must be called before any other change to the file.
+     */
+    private void markDirty() {
+        if (!this.dirty) {
+            this.header.putInt(DIRTY_AT, 1);
+            this.header.force();
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Writes the fields kept in the header into it, cursor included.
+     *
+     * @ensures $this.cursorSaved
+     */
+    private void saveHeader() {
+        this.cursorSaved = true;
+        this.header.putInt(CAPACITY_AT, this.capacity);
+        this.header.putInt(FREE_AT, this.free);
+        this.header.putInt(USED_AT, this.used);
+        this.header.putInt(LAST_LEFT_AT, this.lastLeft);
+        this.header.putInt(LEFT_LENGTH_AT, this.leftLength);
+        this.header.putInt(RIGHT_LENGTH_AT, this.rightLength);
+    }
+
+    /**
+     * Maps slots 0 through {@code capacity - 1} of the file, reusing the
+     * segments already mapped where they are full.
+     *
+     * @param capacity
+     *            the number of slots to map
+     * @updates this.segments, this.capacity
+     * @requires <pre>
+     * capacity <= this.segmentSlots or
+     * [capacity is a multiple of this.segmentSlots]
+     * </pre>
+     */
+    private void map(int capacity) {
+        int count = ((capacity - 1) >>> this.segmentShift) + 1;
+        int slots = Math.min(capacity, this.segmentSlots);
+        MappedByteBuffer[] newSegments = new MappedByteBuffer[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                if (this.segments != null && i < this.segments.length
+                        && this.segments[i]
+                                .capacity() == slots * this.slotSize) {
+                    newSegments[i] = this.segments[i];
+                } else {
+                    long position = HEADER_SIZE
+                            + (long) i * this.segmentSlots * this.slotSize;
+                    newSegments[i] = this.channel.map(
+                            FileChannel.MapMode.READ_WRITE, position,
+                            (long) slots * this.slotSize);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.segments = newSegments;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Rebuilds, from the next links starting at PRE_START, the previous links,
+     * the lengths, the cursor, and the free list of a file that was changed
+     * after it was last forced, and then forces it. The cursor stays at
+     * this.lastLeft if that slot is still in the list, and otherwise goes to
+     * the start.
+     *
+     * @throws IOException
+     *             if the next links do not lead from PRE_START to POST_FINISH
+     *             through distinct slots below this.used
+     */
+    private void recover() throws IOException {
+        BitSet inList = new BitSet(this.used);
+        inList.set(PRE_START);
+        int count = 0;
+        int cursor = (this.lastLeft == PRE_START) ? 0 : NONE;
+        int s = PRE_START;
+        while (s != POST_FINISH) {
+            int n = this.next(s);
+            if (n < 0 || n >= this.used || inList.get(n)) {
+                throw new IOException(this.file + " is damaged: its links do"
+                        + " not form a list");
+            }
+            inList.set(n);
+            this.setPrevious(n, s);
+            if (n != POST_FINISH) {
+                count++;
+                if (n == this.lastLeft) {
+                    cursor = count;
+                }
+            }
+            s = n;
+        }
+        this.setPrevious(PRE_START, NONE);
+        this.setNext(POST_FINISH, NONE);
+        if (cursor == NONE) {
+            this.lastLeft = PRE_START;
+            cursor = 0;
+        }
+        this.leftLength = cursor;
+        this.rightLength = count - cursor;
+        this.free = NONE;
+        for (int f = this.used - 1; f > POST_FINISH; f--) {
+            if (!inList.get(f)) {
+                this.setNext(f, this.free);
+                this.free = f;
+            }
+        }
+        this.saveHeader();
+        this.force();
+    }
+
+    /**
+     * Creator of initial representation, in a file that is empty or is to be
+     * overwritten.
+     */
+    private void createNewRep() {
+
+        this.markDirty();
+        this.header.putInt(MAGIC_AT, MAGIC);
+        this.header.putInt(SLOT_SIZE_AT, this.slotSize);
+        this.segments = null;
+        this.map(INITIAL_CAPACITY);
+        this.setNext(PRE_START, POST_FINISH);
+        this.setPrevious(POST_FINISH, PRE_START);
+        this.setNext(POST_FINISH, NONE);
+        this.setPrevious(PRE_START, NONE);
+        this.free = NONE;
+        this.used = 2;
+        this.lastLeft = PRE_START;
+        this.leftLength = 0;
+        this.rightLength = 0;
+        this.saveHeader();
+
+    }
+
+    /**
+     * Takes a slot off the free list or, if there are no free slots, one that
+     * has never been used, first mapping more of the file if there are none
+     * of those either.
+     *
+     * @return the slot
+     * @throws IllegalStateException
+     *             if every slot index is in use
+     */
+    private int allocateSlot() {
+        int s = this.free;
+        if (s != NONE) {
+            this.free = this.next(s);
+        } else {
+            if (this.used == this.capacity) {
+                int newCapacity;
+                if (this.capacity < this.segmentSlots) {
+                    newCapacity = 2 * this.capacity;
+                } else {
+                    if (this.capacity > Integer.MAX_VALUE - this.segmentSlots) {
+                        throw new IllegalStateException("List7 is full: "
+                                + (this.capacity - 2) + " entries");
+                    }
+                    newCapacity = this.capacity + this.segmentSlots;
+                }
+                this.map(newCapacity);
+            }
+            s = this.used;
+            this.used++;
+        }
+        return s;
+    }
+
+    /**
+     * Constructor that opens {@code file}, creating it if it does not exist.
+     * If the file holds a list, {@code this} is that list, with the cursor
+     * where it was; if it is empty or new, {@code this} is empty.
+     *
+     * @param file
+     *            the file holding the list
+     * @param codec
+     *            the fixed-width encoding of entries
+     * @throws UncheckedIOException
+     *             if the file cannot be opened or mapped, or is not empty and
+     *             does not hold a list written with a codec of the same width,
+     *             or holds one too damaged to recover
+     * @requires file is not null and codec is not null
+     */
+    public List7(Path file, List6.Codec<T> codec) {
+        this(file, codec, false);
+    }
+
+    /**
+     * Constructor that opens {@code file}, as the public constructor does.
+     *
+     * @param file
+     *            the file holding the list
+     * @param codec
+     *            the fixed-width encoding of entries
+     * @param temporary
+     *            whether {@code close} is to delete the file
+     * @throws UncheckedIOException
+     *             as for the public constructor
+     */
+    private List7(Path file, List6.Codec<T> codec, boolean temporary) {
+        assert file != null : "Violation of: file is not null";
+        assert codec != null : "Violation of: codec is not null";
+
+        this.file = file;
+        this.temporary = temporary;
+        this.codec = codec;
+        this.slotSize = LINKS_SIZE + codec.width();
+        this.segmentSlots = Integer
+                .highestOneBit(MAX_SEGMENT_BYTES / this.slotSize);
+        this.segmentShift = Integer.numberOfTrailingZeros(this.segmentSlots);
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean isNew = this.channel.size() == 0;
+            this.header = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE);
+            if (isNew) {
+                this.createNewRep();
+            } else {
+                if (this.header.getInt(MAGIC_AT) != MAGIC
+                        || this.header.getInt(SLOT_SIZE_AT) != this.slotSize) {
+                    throw new IOException(file + " does not hold a List7"
+                            + " with slots of " + this.slotSize + " bytes");
+                }
+                int fileCapacity = this.header.getInt(CAPACITY_AT);
+                this.used = this.header.getInt(USED_AT);
+                if (fileCapacity < INITIAL_CAPACITY
+                        || (fileCapacity > this.segmentSlots
+                                && fileCapacity % this.segmentSlots != 0)
+                        || HEADER_SIZE + (long) fileCapacity
+                                * this.slotSize > this.channel.size()
+                        || this.used < 2 || this.used > fileCapacity) {
+                    throw new IOException(file + " is damaged: its header"
+                            + " does not fit the file");
+                }
+                this.map(fileCapacity);
+                this.free = this.header.getInt(FREE_AT);
+                this.lastLeft = this.header.getInt(LAST_LEFT_AT);
+                this.leftLength = this.header.getInt(LEFT_LENGTH_AT);
+                this.rightLength = this.header.getInt(RIGHT_LENGTH_AT);
+                this.cursorSaved = true;
+                if (this.header.getInt(DIRTY_AT) != 0) {
+                    this.dirty = true;
+                    this.recover();
+                }
+            }
+        } catch (IOException e) {
+            if (this.channel != null) {
+                try {
+                    this.channel.close();
+                } catch (IOException closing) {
+                    e.addSuppressed(closing);
+                }
+            }
+            throw new UncheckedIOException(e);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor that keeps the list in a new file in a scratch directory
+     * shared by all such lists. {@code close} deletes the file; files of lists
+     * that are never closed are deleted when the program ends.
+     *
+     * @param codec
+     *            the fixed-width encoding of entries
+     * @throws UncheckedIOException
+     *             if the file cannot be created or mapped
+     * @requires codec is not null
+     */
+    public List7(List6.Codec<T> codec) {
+        this(newScratchFile(), codec, true);
+    }
+
+    /**
+     * Creates a new empty file in the scratch directory, creating the
+     * directory first if this is the first such file. The first call also
+     * arranges for the directory and whatever is left in it to be deleted
+     * when the program ends.
+     *
+     * @return the path of the file
+     * @throws UncheckedIOException
+     *             if the file cannot be created
+     */
+    private static synchronized Path newScratchFile() {
+        try {
+            if (scratchDirectory == null) {
+                final Path directory = Files.createTempDirectory("List7");
+                Runtime.getRuntime().addShutdownHook(
+                        new Thread(() -> deleteDirectory(directory)));
+                scratchDirectory = directory;
+            }
+            return Files.createTempFile(scratchDirectory, "List7", ".list");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes {@code directory} and the files in it, as far as it can.
+     *
+     * @param directory
+     *            the directory
+     */
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(f -> f.toFile().delete());
+        } catch (IOException e) {
+            //the program is ending; what cannot be deleted is left behind
+            return;
+        }
+        directory.toFile().delete();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The new list is kept in a new file in the scratch directory, as with the
+     * constructor from a codec alone, so each call creates and maps a file.
+     * The file is deleted when the new list is closed; until then, or until
+     * the program ends if it is never closed, it takes up disk space and a
+     * file descriptor.
+     * </p>
+     */
+    @Override
+    public final List7<T> newInstance() {
+        return new List7<T>(this.codec);
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The slots of {@code source} are copied into the file of {@code this},
+     * so this takes time proportional to the size of the file of
+     * {@code source}.
+     * </p>
+     */
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List7<?> : ""
+                + "Violation of: source is of dynamic type List7<?>";
+        assert source != this : "Violation of: source is not this";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List7<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List7<T> localSource = (List7<T>) source;
+        assert localSource.codec.getClass() == this.codec.getClass()
+                && localSource.slotSize == this.slotSize : ""
+                        + "Violation of: [source.codec encodes entries as"
+                        + " this.codec does]";
+
+        //both lists have the same slot size, hence the same segment layout
+        this.markDirty();
+        this.map(Math.max(this.capacity, localSource.capacity));
+        for (int i = 0; i < localSource.segments.length; i++) {
+            ByteBuffer from = localSource.segments[i].duplicate();
+            from.clear();
+            ByteBuffer to = this.segments[i].duplicate();
+            to.clear();
+            to.put(from);
+        }
+        this.free = localSource.free;
+        this.used = localSource.used;
+        this.lastLeft = localSource.lastLeft;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        this.saveHeader();
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.markDirty();
+        //encodes x into a free slot and links it in after the last left slot
+        int s = this.allocateSlot();
+        int after = this.next(this.lastLeft);
+        try {
+            this.codec.write(this.segment(s), this.offset(s) + LINKS_SIZE, x);
+        } catch (IllegalArgumentException e) {
+            //x does not fit: the slot goes back on the free list
+            this.setNext(s, this.free);
+            this.free = s;
+            this.saveHeader();
+            throw e;
+        }
+        this.setNext(s, after);
+        this.setPrevious(s, this.lastLeft);
+        this.setPrevious(after, s);
+        this.setNext(this.lastLeft, s);
+        this.rightLength++;
+        this.saveHeader();
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        this.markDirty();
+        //unlinks the slot after the last left slot and frees it
+        int s = this.next(this.lastLeft);
+        int after = this.next(s);
+        T x = this.entry(s);
+        this.setNext(this.lastLeft, after);
+        this.setPrevious(after, this.lastLeft);
+        this.setNext(s, this.free);
+        this.free = s;
+        this.rightLength--;
+        this.saveHeader();
+
+        assert this.conventionHolds();
+        return x;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        this.lastLeft = this.next(this.lastLeft);
+        this.leftLength++;
+        this.rightLength--;
+        this.cursorSaved = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+
+        this.lastLeft = PRE_START;
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+        this.cursorSaved = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+
+        assert this.conventionHolds();
+
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List7Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List7}.
+     */
+    private final class List7Iterator implements Iterator<T> {
+
+        /**
+         * Current slot in the linked list.
+         */
+        private int current;
+
+        /**
+         * No-argument constructor.
+         */
+        private List7Iterator() {
+            this.current = List7.this.next(PRE_START);
+            assert List7.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != POST_FINISH;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = List7.this.entry(this.current);
+            this.current = List7.this.next(this.current);
+            assert List7.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+
+        this.lastLeft = this.previous(POST_FINISH);
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+        this.cursorSaved = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        this.lastLeft = this.previous(this.lastLeft);
+        this.leftLength--;
+        this.rightLength++;
+        this.cursorSaved = false;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Reports the file holding {@code this}.
+     *
+     * @return the file
+     */
+    public final Path file() {
+        return this.file;
+    }
+
+    /**
+     * Writes the cursor into the header if it has moved since it was last
+     * written, waits until every change made to {@code this} so far has been
+     * written to the disk, and then clears the dirty mark.
+     *
+     * @throws UncheckedIOException
+     *             if the changes cannot be written
+     */
+    public final void force() {
+        assert this.header != null : "Violation of: this is not closed";
+
+        if (!this.cursorSaved) {
+            this.markDirty();
+            this.saveHeader();
+        }
+        if (this.dirty) {
+            for (MappedByteBuffer segment : this.segments) {
+                segment.force();
+            }
+            this.header.force();
+            this.header.putInt(DIRTY_AT, 0);
+            this.header.force();
+            this.dirty = false;
+        }
+    }
+
+    /**
+     * Writes every change to the disk, as {@code force} does, and gives up the
+     * file. Afterwards only {@code close} may be called on {@code this}. If
+     * {@code this} was made without a file, the file is deleted.
+     *
+     * @throws UncheckedIOException
+     *             if the changes cannot be written or the file cannot be
+     *             closed or deleted
+     */
+    @Override
+    public final void close() {
+        if (this.header != null) {
+            this.force();
+            try {
+                this.channel.close();
+                if (this.temporary) {
+                    Files.deleteIfExists(this.file);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.channel = null;
+            this.header = null;
+            this.segments = null;
+            this.capacity = 0;
+            this.free = NONE;
+            this.used = 0;
+            this.lastLeft = PRE_START;
+            this.leftLength = 0;
+            this.rightLength = 0;
+        }
+    }
+
+}
@@ -0,0 +1,556 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * List of {@code long}s with the same cursor model as {@code List3} (a pair of
+ * strings, this.left and this.right), represented as a doubly linked list
+ * whose nodes are slots in parallel arrays (a {@code long} array of entries
+ * and {@code int} arrays of links) rather than objects, so entries are never
+ * boxed.
+ *
+ * <p>
+ * Slot 0 is the "smart node" before the start of the list and slot 1 the one
+ * after its finish; links are slot indices. Slots freed by
+ * {@code removeRightFront} are kept on a free list and reused, and the arrays
+ * double in length when they fill up, so the amortized execution-time
+ * performance of all methods implemented in this class is O(1).
+ * </p>
+ *
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * [$this.rightLength >= 0] and
+ * [$this.values, $this.next, and $this.previous are not null and all have
+ *  the same length, which is at least 2]  and
+ * [slot PRE_START is the first slot of a doubly linked list (through next
+ *  and previous) containing ($this.leftLength + $this.rightLength + 2)
+ *  slots, the last of which is slot POST_FINISH]  and
+ * [$this.lastLeft is the ($this.leftLength + 1)-th slot in that doubly
+ *  linked list]  and
+ * [for every slot s in the doubly linked list, except PRE_START,
+ *  $this.next[$this.previous[s]] = s]  and
+ * [for every slot s in the doubly linked list, except POST_FINISH,
+ *  $this.previous[$this.next[s]] = s]  and
+ * [$this.free is NONE or the first slot of a singly linked list (through
+ *  next) of the slots not in the doubly linked list, ending with NONE]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([values in slots starting at $this.next[PRE_START] and running through
+ *    $this.lastLeft],
+ *   [values in slots starting at $this.next[$this.lastLeft] and running
+ *    through $this.previous[POST_FINISH]])
+ * </pre>
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public class LongList3 implements Iterable<Long> {
+
+    /**
+     * Slot of the "smart node" before the start of the list.
+     */
+    private static final int PRE_START = 0;
+
+    /**
+     * Slot of the "smart node" after the finish of the list.
+     */
+    private static final int POST_FINISH = 1;
+
+    /**
+     * Link value meaning "no slot".
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Initial number of slots, including the two "smart node" slots.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Entry held in each slot, or, for "smart node" and free slots,
+     * irrelevant.
+     */
+    private long[] values;
+
+    /**
+     * Slot after each slot in the doubly linked list, or the next free slot.
+     */
+    private int[] next;
+
+    /**
+     * Slot before each slot in the doubly linked list.
+     */
+    private int[] previous;
+
+    /**
+     * First free slot, or NONE if there are none.
+     */
+    private int free;
+
+    /**
+     * Last slot of doubly linked list in this.left.
+     */
+    private int lastLeft;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * [$this.rightLength >= 0] and
+     * [$this.values, $this.next, and $this.previous are not null and all
+     *  have the same length, which is at least 2]  and
+     * [slot PRE_START is the first slot of a doubly linked list (through
+     *  next and previous) containing ($this.leftLength + $this.rightLength +
+     *  2) slots, the last of which is slot POST_FINISH]  and
+     * [$this.lastLeft is the ($this.leftLength + 1)-th slot in that doubly
+     *  linked list]  and
+     * [for every slot s in the doubly linked list, except PRE_START,
+     *  $this.next[$this.previous[s]] = s]  and
+     * [for every slot s in the doubly linked list, except POST_FINISH,
+     *  $this.previous[$this.next[s]] = s]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.values != null && this.next != null
+                && this.previous != null
+                && this.values.length == this.next.length
+                && this.next.length == this.previous.length
+                && this.values.length >= 2 : ""
+                        + "Violation of: [$this.values, $this.next, and"
+                        + " $this.previous are not null and all have the"
+                        + " same length, which is at least 2]";
+
+        int count = 0;
+        boolean lastLeftFound = false;
+        int s = PRE_START;
+        while ((count < this.leftLength + this.rightLength + 1)
+                && (s != POST_FINISH)) {
+            count++;
+            if (s == this.lastLeft) {
+                assert count == this.leftLength + 1 : ""
+                        + "Violation of: [$this.lastLeft is the"
+                        + " ($this.leftLength + 1)-th slot in that doubly"
+                        + " linked list]";
+                lastLeftFound = true;
+            }
+            int n = this.next[s];
+            assert (n != NONE) && (this.previous[n] == s) : ""
+                    + "Violation of: [for every slot s in the doubly linked"
+                    + " list, except POST_FINISH,"
+                    + " $this.previous[$this.next[s]] = s]";
+            s = n;
+        }
+        count++;
+        assert count == this.leftLength + this.rightLength + 2 : ""
+                + "Violation of: [slot PRE_START is the first slot of a doubly"
+                + " linked list containing"
+                + " ($this.leftLength + $this.rightLength + 2) slots]";
+        assert lastLeftFound : ""
+                + "Violation of: [$this.lastLeft is the ($this.leftLength + 1)"
+                + "-th slot in that doubly linked list]";
+        assert s == POST_FINISH : ""
+                + "Violation of: [the last slot of that doubly linked list is"
+                + " slot POST_FINISH]";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.values = new long[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+        this.previous = new int[INITIAL_CAPACITY];
+        this.next[PRE_START] = POST_FINISH;
+        this.previous[POST_FINISH] = PRE_START;
+        this.next[POST_FINISH] = NONE;
+        this.previous[PRE_START] = NONE;
+        this.free = NONE;
+        for (int s = INITIAL_CAPACITY - 1; s > POST_FINISH; s--) {
+            this.next[s] = this.free;
+            this.free = s;
+        }
+        this.lastLeft = PRE_START;
+        this.leftLength = 0;
+        this.rightLength = 0;
+
+    }
+
+    /**
+     * Takes a slot off the free list, doubling the arrays first if there are
+     * no free slots.
+     *
+     * @return the slot
+     */
+    private int allocateSlot() {
+        if (this.free == NONE) {
+            int oldCapacity = this.values.length;
+            int newCapacity = 2 * oldCapacity;
+            this.values = Arrays.copyOf(this.values, newCapacity);
+            this.next = Arrays.copyOf(this.next, newCapacity);
+            this.previous = Arrays.copyOf(this.previous,
+                    newCapacity);
+            for (int s = newCapacity - 1; s >= oldCapacity; s--) {
+                this.next[s] = this.free;
+                this.free = s;
+            }
+        }
+        int s = this.free;
+        this.free = this.next[s];
+        return s;
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public LongList3() {
+
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Returns a new object with the same <i>dynamic</i> type as
+     * {@code this}, having an initial value.
+     *
+     * @return new object "like" {@code this}, with an initial value
+     * @ensures newInstance = (<>, <>)
+     */
+    public final LongList3 newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    /**
+     * Resets {@code this} to an initial value.
+     *
+     * @clears this
+     */
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Sets {@code this} to the incoming value of {@code source}, and resets
+     * {@code source} to an initial value.
+     *
+     * @param source
+     *            {@code LongList3} whose value is to be transferred
+     * @replaces this
+     * @clears source
+     * @requires source is not null and source is not this
+     * @ensures this = #source
+     */
+    public final void transferFrom(LongList3 source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+
+        this.values = source.values;
+        this.next = source.next;
+        this.previous = source.previous;
+        this.free = source.free;
+        this.lastLeft = source.lastLeft;
+        this.leftLength = source.leftLength;
+        this.rightLength = source.rightLength;
+        source.createNewRep();
+        assert this.conventionHolds();
+        assert source.conventionHolds();
+    }
+
+    /**
+     * Adds {@code x} to the beginning of {@code this.right}.
+     *
+     * @param x
+     *            the entry to be added
+     * @updates this.right
+     * @ensures this.right = <x> * #this.right
+     */
+    public final void addRightFront(long x) {
+
+        //takes a free slot and links it in just after the last left slot
+        int s = this.allocateSlot();
+        int after = this.next[this.lastLeft];
+        this.values[s] = x;
+        this.next[s] = after;
+        this.previous[s] = this.lastLeft;
+        this.previous[after] = s;
+        this.next[this.lastLeft] = s;
+        this.rightLength++;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Removes and returns the entry at the front of {@code this.right}.
+     *
+     * @return the front entry of {@code this.right}
+     * @updates this.right
+     * @requires this.right /= <>
+     * @ensures #this.right = <removeRightFront> * this.right
+     */
+    public final long removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //unlinks the slot after the last left slot and frees it
+        int s = this.next[this.lastLeft];
+        int after = this.next[s];
+        this.next[this.lastLeft] = after;
+        this.previous[after] = this.lastLeft;
+        this.next[s] = this.free;
+        this.free = s;
+        this.rightLength--;
+
+        assert this.conventionHolds();
+        return this.values[s];
+    }
+
+    /**
+     * Advances the position in {@code this} by one.
+     *
+     * @updates this
+     * @requires this.right /= <>
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = |#this.left| + 1
+     * </pre>
+     */
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        this.lastLeft = this.next[this.lastLeft];
+        this.leftLength++;
+        this.rightLength--;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Moves the position in {@code this} to the beginning.
+     *
+     * @updates this
+     * @ensures <pre>
+     * this.left = <>  and
+     * this.right = #this.left * #this.right
+     * </pre>
+     */
+    public final void moveToStart() {
+
+        this.lastLeft = PRE_START;
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Reports length of {@code this.left}.
+     *
+     * @return the length of {@code this.left}
+     * @ensures leftLength = |this.left|
+     */
+    public final int leftLength() {
+
+        assert this.conventionHolds();
+
+        return this.leftLength;
+    }
+
+    /**
+     * Reports length of {@code this.right}.
+     *
+     * @return the length of {@code this.right}
+     * @ensures rightLength = |this.right|
+     */
+    public final int rightLength() {
+
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    /**
+     * Moves the position in {@code this} to the end.
+     *
+     * @updates this
+     * @ensures <pre>
+     * this.left = #this.left * #this.right  and
+     * this.right = <>
+     * </pre>
+     */
+    public final void moveToFinish() {
+
+        this.lastLeft = this.previous[POST_FINISH];
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Retreats the position in {@code this} by one.
+     *
+     * @updates this
+     * @requires this.left /= <>
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = |#this.left| - 1
+     * </pre>
+     */
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        this.lastLeft = this.previous[this.lastLeft];
+        this.leftLength--;
+        this.rightLength++;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Returns an iterator over the entries of {@code this.left * this.right},
+     * whose {@code nextLong} method returns them without boxing.
+     *
+     * @return an iterator over the entries of {@code this}
+     */
+    @Override
+    public final PrimitiveIterator.OfLong iterator() {
+        assert this.conventionHolds();
+        return new LongList3Iterator();
+    }
+
+    /**
+     * Implementation of {@code PrimitiveIterator.OfLong} interface for
+     * {@code LongList3}.
+     */
+    private final class LongList3Iterator implements PrimitiveIterator.OfLong {
+
+        /**
+         * Current slot in the linked list.
+         */
+        private int current;
+
+        /**
+         * No-argument constructor.
+         */
+        private LongList3Iterator() {
+            this.current = LongList3.this.next[PRE_START];
+            assert LongList3.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != POST_FINISH;
+        }
+
+        @Override
+        public long nextLong() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            long x = LongList3.this.values[this.current];
+            this.current = LongList3.this.next[this.current];
+            assert LongList3.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Common methods (from Object) -------------------------------------------
+     */
+
+    @Override
+    public final boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof LongList3)) {
+            return false;
+        }
+        LongList3 other = (LongList3) obj;
+        if (this.leftLength != other.leftLength
+                || this.rightLength != other.rightLength) {
+            return false;
+        }
+        int s = this.next[PRE_START];
+        int t = other.next[PRE_START];
+        while (s != POST_FINISH) {
+            if (this.values[s] != other.values[t]) {
+                return false;
+            }
+            s = this.next[s];
+            t = other.next[t];
+        }
+        return true;
+    }
+
+    @Override
+    public final int hashCode() {
+        final int a = 37;
+        int result = this.leftLength;
+        for (int s = this.next[PRE_START]; s != POST_FINISH; s = this.next[s]) {
+            result = a * result + Long.hashCode(this.values[s]);
+        }
+        return result;
+    }
+
+    @Override
+    public final String toString() {
+        StringBuilder result = new StringBuilder("(<");
+        int s = this.next[PRE_START];
+        for (int i = 0; i < this.leftLength; i++) {
+            if (i > 0) {
+                result.append(",");
+            }
+            result.append(this.values[s]);
+            s = this.next[s];
+        }
+        result.append(">,<");
+        for (int i = 0; i < this.rightLength; i++) {
+            if (i > 0) {
+                result.append(",");
+            }
+            result.append(this.values[s]);
+            s = this.next[s];
+        }
+        result.append(">)");
+        return result.toString();
+    }
+
+}
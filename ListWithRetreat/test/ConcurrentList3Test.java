@@ -0,0 +1,231 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code ConcurrentList3}.
+ */
+public class ConcurrentList3Test extends ListTest {
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new ConcurrentList3<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /**
+     * Tests that readers iterating while a writer adds entries always see a
+     * whole list, never one caught in the middle of a change.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    @Test
+    public final void testReadersDuringWrites() throws InterruptedException {
+        /*
+         * Set up variables
+         */
+        final int count = 2000;
+        final int readers = 4;
+        final List<String> list = this.constructorTest();
+        final AtomicInteger badSnapshots = new AtomicInteger();
+        Thread[] threads = new Thread[readers];
+        for (int r = 0; r < readers; r++) {
+            threads[r] = new Thread(() -> {
+                int seen = 0;
+                while (seen < count) {
+                    //entries are added in increasing order at the finish
+                    int expected = 0;
+                    for (String x : list) {
+                        if (!x.equals(Integer.toString(expected))) {
+                            badSnapshots.incrementAndGet();
+                        }
+                        expected++;
+                    }
+                    if (expected < seen) {
+                        badSnapshots.incrementAndGet();
+                    }
+                    seen = expected;
+                }
+            });
+            threads[r].start();
+        }
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < count; i++) {
+            list.addRightFront(Integer.toString(i));
+            list.advance();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(0, badSnapshots.get());
+        assertEquals(count, list.leftLength());
+        assertEquals(0, list.rightLength());
+    }
+
+
+    /**
+     * Tests that an iteration started after a change sees it, though an
+     * iteration before the change cached a copy of the entries.
+     */
+    @Test
+    public final void testIteratorAfterChange() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green",
+                "blue");
+        StringBuilder before = new StringBuilder();
+        for (String x : list1) {
+            before.append(x);
+        }
+        /*
+         * Call method under test
+         */
+        list1.addRightFront("green");
+        StringBuilder after = new StringBuilder();
+        for (String x : list1) {
+            after.append(x);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("redblue", before.toString());
+        assertEquals("redgreenblue", after.toString());
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests that the entries copied for an iteration stay in use across
+     * cursor moves and are dropped by the next change.
+     */
+    @Test
+    public final void testIteratorAfterCursorMoves() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "blue");
+        List<String> list2 = this.createFromArgsRef(0, "green", "red",
+                "blue");
+        StringBuilder before = new StringBuilder();
+        for (String x : list1) {
+            before.append(x);
+        }
+        /*
+         * Call method under test
+         */
+        list1.advance();
+        list1.moveToStart();
+        StringBuilder moved = new StringBuilder();
+        for (String x : list1) {
+            moved.append(x);
+        }
+        list1.addRightFront("green");
+        StringBuilder after = new StringBuilder();
+        for (String x : list1) {
+            after.append(x);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("redblue", before.toString());
+        assertEquals("redblue", moved.toString());
+        assertEquals("greenredblue", after.toString());
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests append of one ConcurrentList3 to another.
+     */
+    @Test
+    public final void testAppend() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "green");
+        List<String> list2 = this.createFromArgsTest(1, "blue", "yellow");
+        List<String> list3 = this.createFromArgsRef(1, "red", "green", "blue",
+                "yellow");
+        List<String> list4 = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        list1.append(list2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list3, list1);
+        assertEquals(list4, list2);
+    }
+
+    /**
+     * Tests moveToPosition.
+     */
+    @Test
+    public final void testMoveToPosition() {
+        /*
+         * Set up variables
+         */
+        ConcurrentList3<String> list1 = (ConcurrentList3<String>) this
+                .createFromArgsTest(0, "red", "green", "blue");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green",
+                "blue");
+        /*
+         * Call method under test
+         */
+        list1.moveToPosition(2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests equals, hashCode, and toString between two ConcurrentList3s and a
+     * List1L.
+     */
+    @Test
+    public final void testEqualsHashCodeToString() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "green");
+        List<String> list2 = this.createFromArgsTest(1, "red", "green");
+        List<String> list3 = this.createFromArgsRef(1, "red", "green");
+        /*
+         * Call method under test
+         */
+        boolean same = list1.equals(list2) && list1.equals(list3)
+                && list3.equals(list1);
+        int hash1 = list1.hashCode();
+        int hash2 = list2.hashCode();
+        String string = list1.toString();
+        list2.advance();
+        boolean different = !list1.equals(list2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertTrue(same);
+        assertTrue(different);
+        assertEquals(list3.hashCode(), hash1);
+        assertEquals(list3.hashCode(), hash2);
+        assertEquals(list3.toString(), string);
+    }
+
+}
@@ -0,0 +1,163 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.PrimitiveIterator;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code IntList3}'s constructor and methods.
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public class IntList3Test {
+
+    /**
+     * Constant of value 3 to avoid magic number warnings.
+     */
+    private static final int THREE = 3;
+
+    /**
+     * Number of entries that forces the slot arrays to grow more than once.
+     */
+    private static final int MANY = 100;
+
+    /**
+     * Creates and returns an {@code IntList3} with the given entries.
+     *
+     * @param leftLength
+     *            the length of the left string in the constructed list
+     * @param args
+     *            the entries for the list
+     * @return the constructed list
+     * @requires 0 <= leftLength <= args.length
+     * @ensures <pre>
+     * createFromArgs =
+     *   ([first leftLength entries in args], [remaining entries in args])
+     * </pre>
+     */
+    private static IntList3 createFromArgs(int leftLength, int... args) {
+        IntList3 list = new IntList3();
+        for (int x : args) {
+            list.addRightFront(x);
+            list.advance();
+        }
+        list.moveToStart();
+        for (int i = 0; i < leftLength; i++) {
+            list.advance();
+        }
+        return list;
+    }
+
+    /**
+     * Tests the no-argument constructor.
+     */
+    @Test
+    public final void testConstructor() {
+        IntList3 list = new IntList3();
+        assertEquals(0, list.leftLength());
+        assertEquals(0, list.rightLength());
+        assertEquals("(<>,<>)", list.toString());
+    }
+
+    /**
+     * Tests adding an entry at the cursor of a list with entries on both
+     * sides.
+     */
+    @Test
+    public final void testAddRightFront() {
+        IntList3 list1 = createFromArgs(1, 1, 2);
+        IntList3 list2 = createFromArgs(1, 1, THREE, 2);
+        list1.addRightFront(THREE);
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests removing the entry at the cursor.
+     */
+    @Test
+    public final void testRemoveRightFront() {
+        IntList3 list1 = createFromArgs(1, 1, THREE, 2);
+        IntList3 list2 = createFromArgs(1, 1, 2);
+        int x = list1.removeRightFront();
+        assertEquals(THREE, x);
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests advance, retreat, moveToStart, and moveToFinish.
+     */
+    @Test
+    public final void testCursorMoves() {
+        IntList3 list = createFromArgs(0, 1, 2, THREE);
+        list.advance();
+        list.advance();
+        assertEquals(createFromArgs(2, 1, 2, THREE), list);
+        list.retreat();
+        assertEquals(createFromArgs(1, 1, 2, THREE), list);
+        list.moveToFinish();
+        assertEquals(createFromArgs(THREE, 1, 2, THREE), list);
+        list.moveToStart();
+        assertEquals(createFromArgs(0, 1, 2, THREE), list);
+    }
+
+    /**
+     * Tests adding and removing enough entries to grow the slot arrays and
+     * reuse freed slots.
+     */
+    @Test
+    public final void testGrowAndReuse() {
+        IntList3 list = new IntList3();
+        for (int i = 0; i < MANY; i++) {
+            list.addRightFront(i);
+        }
+        for (int i = MANY - 1; i >= MANY / 2; i--) {
+            assertEquals(i, list.removeRightFront());
+        }
+        for (int i = 0; i < MANY / 2; i++) {
+            list.addRightFront(i);
+        }
+        assertEquals(0, list.leftLength());
+        assertEquals(MANY, list.rightLength());
+    }
+
+    /**
+     * Tests iterating over a list with entries on both sides.
+     */
+    @Test
+    public final void testIterator() {
+        IntList3 list = createFromArgs(1, 1, 2, THREE);
+        PrimitiveIterator.OfInt it = list.iterator();
+        int sum = 0;
+        int count = 0;
+        while (it.hasNext()) {
+            sum += it.nextInt();
+            count++;
+        }
+        assertEquals(1 + 2 + THREE, sum);
+        assertEquals(THREE, count);
+        assertEquals(createFromArgs(1, 1, 2, THREE), list);
+    }
+
+    /**
+     * Tests transferFrom.
+     */
+    @Test
+    public final void testTransferFrom() {
+        IntList3 list1 = new IntList3();
+        IntList3 list2 = createFromArgs(1, 1, 2);
+        list1.transferFrom(list2);
+        assertEquals(createFromArgs(1, 1, 2), list1);
+        assertEquals(new IntList3(), list2);
+    }
+
+    /**
+     * Tests toString.
+     */
+    @Test
+    public final void testToString() {
+        IntList3 list = createFromArgs(2, 1, 2, THREE);
+        assertEquals("(<1,2>,<3>)", list.toString());
+    }
+
+}
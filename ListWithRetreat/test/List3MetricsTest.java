@@ -0,0 +1,198 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code List3Metrics}.
+ *
+ * <p>
+ * {@code List3Metrics.ENABLED} is fixed when the class is loaded, so the
+ * instrumented path is tested by running {@code main} in a second JVM with
+ * {@code -DList3.metrics=true}.
+ * </p>
+ */
+public class List3MetricsTest {
+
+    /**
+     * Runs a known sequence of {@code List3} calls with metrics on and prints
+     * the counts and histogram after it and then after {@code reset}, one per
+     * line, for {@code testEnabledRun}.
+     *
+     * @param args
+     *            the command-line arguments; ignored
+     * @throws IOException
+     *             if writing or reading the list fails
+     */
+    public static void main(String[] args) throws IOException {
+        List3<String> list = new List3<String>();
+        List3Metrics.reset();
+        list.addRightFront("red");
+        list.addRightFront("green");
+        list.addRightFront("blue");
+        list.advance();
+        list.advance();
+        list.advance();
+        list.retreat();
+        list.retreat();
+        list.removeRightFront();
+        list.moveToStart();
+        list.advance();
+        list.moveToFinish();
+        list.retreat();
+        list.moveToPosition(1);
+        list.retreat(1);
+        list.advance(2);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        list.writeTo(new DataOutputStream(bytes), ElementCodec.strings());
+        list.clear();
+        list.readFrom(
+                new DataInputStream(
+                        new ByteArrayInputStream(bytes.toByteArray())),
+                ElementCodec.strings());
+        System.out.println(List3Metrics.counts());
+        System.out.println(Arrays.toString(List3Metrics.travelHistogram()));
+        List3Metrics.reset();
+        System.out.println(List3Metrics.counts());
+        System.out.println(Arrays.toString(List3Metrics.travelHistogram()));
+    }
+
+    /**
+     * Tests the counts, the histogram, and {@code reset} with metrics on, by
+     * running {@code main} in a second JVM.
+     *
+     * @throws IOException
+     *             if the second JVM cannot be started or read from
+     * @throws InterruptedException
+     *             if interrupted while waiting for the second JVM
+     */
+    @Test
+    public final void testEnabledRun()
+            throws IOException, InterruptedException {
+        /*
+         * Set up variables
+         */
+        final int bucketOfFive = 3;
+        final int addRightFronts = 3;
+        final int advances = 5;
+        final int retreats = 4;
+        final int emptyRuns = 4;
+        Map<List3Metrics.Operation, Long> counts = new EnumMap<>(
+                List3Metrics.Operation.class);
+        for (List3Metrics.Operation op : List3Metrics.Operation.values()) {
+            counts.put(op, 0L);
+        }
+        String zeroCounts = counts.toString();
+        long[] histogram = new long[List3Metrics.TRAVEL_BUCKETS];
+        String zeroHistogram = Arrays.toString(histogram);
+        counts.put(List3Metrics.Operation.ADD_RIGHT_FRONT,
+                (long) addRightFronts);
+        counts.put(List3Metrics.Operation.REMOVE_RIGHT_FRONT, 1L);
+        counts.put(List3Metrics.Operation.ADVANCE, (long) advances);
+        counts.put(List3Metrics.Operation.RETREAT, (long) retreats);
+        counts.put(List3Metrics.Operation.MOVE_TO_START, 1L);
+        counts.put(List3Metrics.Operation.MOVE_TO_FINISH, 1L);
+        counts.put(List3Metrics.Operation.MOVE_TO_POSITION, 1L);
+        counts.put(List3Metrics.Operation.CLEAR, 1L);
+        histogram[0] = emptyRuns;
+        histogram[1] = 2;
+        histogram[2] = 1;
+        histogram[bucketOfFive] = 1;
+        String expected = counts + "\n" + Arrays.toString(histogram) + "\n"
+                + zeroCounts + "\n" + zeroHistogram + "\n";
+        ProcessBuilder builder = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java")
+                        .toString(),
+                "-ea", "-DList3.metrics=true", "-cp",
+                System.getProperty("java.class.path"),
+                List3MetricsTest.class.getName());
+        builder.redirectErrorStream(true);
+        /*
+         * Call method under test
+         */
+        Process process = builder.start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        int status = process.waitFor();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(output, 0, status);
+        assertEquals(expected, output.replace(System.lineSeparator(), "\n"));
+    }
+
+    /**
+     * Tests that cursor runs land in the right histogram buckets.
+     */
+    @Test
+    public final void testTravelBuckets() {
+        /*
+         * Set up variables
+         */
+        final int runOfFive = 5;
+        final int bucketOfFive = 3;
+        List3Metrics.reset();
+        /*
+         * Call method under test
+         */
+        List3Metrics.recordTravel(0);
+        List3Metrics.recordTravel(1);
+        List3Metrics.recordTravel(runOfFive);
+        long[] histogram = List3Metrics.travelHistogram();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(List3Metrics.TRAVEL_BUCKETS, histogram.length);
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[1]);
+        assertEquals(0, histogram[2]);
+        assertEquals(1, histogram[bucketOfFive]);
+        List3Metrics.reset();
+    }
+
+    /**
+     * Tests that List3 calls are counted if and only if the metrics are on.
+     */
+    @Test
+    public final void testCountsFollowEnabled() {
+        /*
+         * Set up variables
+         */
+        List3<String> list = new List3<String>();
+        List3Metrics.reset();
+        /*
+         * Call method under test
+         */
+        list.addRightFront("red");
+        list.advance();
+        list.retreat();
+        list.moveToStart();
+        /*
+         * Assert that values of variables match expectations
+         */
+        long expected = List3Metrics.ENABLED ? 1 : 0;
+        assertEquals(expected,
+                List3Metrics.count(List3Metrics.Operation.ADD_RIGHT_FRONT));
+        assertEquals(expected,
+                List3Metrics.count(List3Metrics.Operation.ADVANCE));
+        assertEquals(expected,
+                List3Metrics.count(List3Metrics.Operation.RETREAT));
+        assertEquals(expected,
+                List3Metrics.count(List3Metrics.Operation.MOVE_TO_START));
+        List3Metrics.reset();
+    }
+
+}
@@ -1,3 +1,21 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
 import components.list.List;
 import components.list.List1L;
 
@@ -6,6 +24,34 @@ import components.list.List1L;
  */
 public class List3Test extends ListTest {
 
+    /**
+     * Constant of value 3 to avoid magic number warnings.
+     */
+    private static final int THREE = 3;
+
+    /**
+     * Length of the list in the parallel sort test; long enough that the list
+     * is cut into several pieces.
+     */
+    private static final int PARALLEL_SORT_LENGTH = 50_000;
+
+    /**
+     * Subclass of {@code List3}, for testing {@code newInstance}.
+     *
+     * @param <T>
+     *            type of {@code List} entries
+     */
+    public static final class SubList3<T> extends List3<T> {
+
+        /**
+         * No-argument constructor.
+         */
+        public SubList3() {
+            super();
+        }
+
+    }
+
     @Override
     protected final List<String> constructorTest() {
         return new List3<String>();
@@ -16,4 +62,1522 @@ public class List3Test extends ListTest {
         return new List1L<String>();
     }
 
+    /*
+     * Test cases for List3-specific methods.
+     */
+
+    /**
+     * Tests removing and then adding entries with node pooling turned on.
+     */
+    @Test
+    public final void testRemoveThenAddWithNodePool() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "yellow",
+                "purple");
+        list1.setNodePoolCapacity(2);
+        /*
+         * Call methods under test
+         */
+        String s1 = list1.removeRightFront();
+        String s2 = list1.removeRightFront();
+        list1.addRightFront("purple");
+        list1.addRightFront("yellow");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("green", s1);
+        assertEquals("blue", s2);
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests clearing a list with node pooling turned on and then reusing it.
+     */
+    @Test
+    public final void testClearWithNodePool() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = new List3<String>(THREE);
+        list1.addRightFront("red");
+        list1.addRightFront("green");
+        list1.advance();
+        List<String> list2 = this.createFromArgsRef(0, "blue");
+        /*
+         * Call method under test
+         */
+        list1.clear();
+        list1.addRightFront("blue");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(THREE, list1.nodePoolCapacity());
+    }
+
+    /**
+     * Tests lowering the node pool capacity of a list that has pooled nodes.
+     */
+    @Test
+    public final void testSetNodePoolCapacityLower() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(0, "blue");
+        list1.setNodePoolCapacity(THREE);
+        list1.removeRightFront();
+        list1.removeRightFront();
+        /*
+         * Call method under test
+         */
+        list1.setNodePoolCapacity(1);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(1, list1.nodePoolCapacity());
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests appending a non-empty {@code List3} to a list with entries on
+     * both sides.
+     */
+    @Test
+    public final void testAppendList3() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "green");
+        List<String> list2 = this.createFromArgsTest(1, "blue", "yellow");
+        List<String> list3 = this.createFromArgsRef(1, "red", "green", "blue",
+                "yellow");
+        List<String> list4 = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        list1.append(list2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list3, list1);
+        assertEquals(list4, list2);
+    }
+
+    /**
+     * Tests appending an empty {@code List3} to an empty list.
+     */
+    @Test
+    public final void testAppendEmptyList3() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(0);
+        List<String> list2 = this.createFromArgsTest(0);
+        List<String> list3 = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        list1.append(list2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list3, list1);
+        assertEquals(list3, list2);
+    }
+
+    /**
+     * Tests appending a list that is not a {@code List3}.
+     */
+    @Test
+    public final void testAppendOtherList() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(2, "red", "green");
+        List<String> list2 = this.createFromArgsRef(0, "blue");
+        List<String> list3 = this.createFromArgsRef(2, "red", "green", "blue");
+        List<String> list4 = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        list1.append(list2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list3, list1);
+        assertEquals(list4, list2);
+    }
+
+    /**
+     * Tests splicing a list into the middle of a list.
+     */
+    @Test
+    public final void testSpliceAtCursor() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green");
+        List3<String> list2 = (List3<String>) this.createFromArgsTest(2,
+                "blue", "yellow", "purple");
+        List<String> list3 = this.createFromArgsRef(1, "red", "blue", "yellow",
+                "purple", "green");
+        List<String> list4 = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        list1.spliceAtCursor(list2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list3, list1);
+        assertEquals(list4, list2);
+    }
+
+    /**
+     * Tests splicing a list at the end of a list and then adding to both.
+     */
+    @Test
+    public final void testSpliceAtCursorFinishThenAdd() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1,
+                "red");
+        List3<String> list2 = (List3<String>) this.createFromArgsTest(0,
+                "blue");
+        List<String> list3 = this.createFromArgsRef(1, "red", "green", "blue");
+        List<String> list4 = this.createFromArgsRef(0, "yellow");
+        /*
+         * Call method under test
+         */
+        list1.spliceAtCursor(list2);
+        list1.addRightFront("green");
+        list2.addRightFront("yellow");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list3, list1);
+        assertEquals(list4, list2);
+    }
+
+    /**
+     * Tests splitting off the right part of a list with entries on both
+     * sides.
+     */
+    @Test
+    public final void testSplitRight() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red");
+        List<String> list3 = this.createFromArgsRef(0, "green", "blue");
+        /*
+         * Call method under test
+         */
+        List3<String> right = list1.splitRight();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(list3, right);
+    }
+
+    /**
+     * Tests splitting off the empty right part of a list.
+     */
+    @Test
+    public final void testSplitRightEmpty() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green");
+        List<String> list3 = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        List3<String> right = list1.splitRight();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(list3, right);
+    }
+
+    /**
+     * Tests splitting off the left part of a list and then editing both
+     * parts.
+     */
+    @Test
+    public final void testSplitLeftThenAdd() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(0, "yellow", "blue");
+        List<String> list3 = this.createFromArgsRef(2, "red", "green",
+                "purple");
+        /*
+         * Call method under test
+         */
+        List3<String> left = list1.splitLeft();
+        list1.addRightFront("yellow");
+        left.addRightFront("purple");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(list3, left);
+    }
+
+    /**
+     * Tests flip on a list with entries on both sides.
+     */
+    @Test
+    public final void testFlip() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(2, "red", "green",
+                "blue");
+        List<String> list2 = this.createFromArgsRef(1, "blue", "green", "red");
+        /*
+         * Call method under test
+         */
+        list1.flip();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests editing and moving through a list after a flip.
+     */
+    @Test
+    public final void testFlipThenAddAndMove() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "green",
+                "blue");
+        List<String> list2 = this.createFromArgsRef(4, "blue", "green",
+                "yellow", "red");
+        /*
+         * Call method under test
+         */
+        list1.flip();
+        list1.addRightFront("yellow");
+        list1.retreat();
+        list1.moveToFinish();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests that flipping twice gives back the original list.
+     */
+    @Test
+    public final void testFlipTwice() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "green");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green");
+        /*
+         * Call method under test
+         */
+        list1.flip();
+        list1.flip();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests appending a list that has not been flipped to one that has.
+     */
+    @Test
+    public final void testFlipThenAppendList3() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0, "red",
+                "green");
+        List3<String> list2 = (List3<String>) this.createFromArgsTest(1,
+                "blue", "yellow");
+        List<String> list3 = this.createFromArgsRef(2, "green", "red", "blue",
+                "yellow");
+        List<String> list4 = this.createFromArgsRef(0);
+        /*
+         * Call method under test
+         */
+        list1.flip();
+        list1.append(list2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list3, list1);
+        assertEquals(list4, list2);
+    }
+
+    /**
+     * Tests moveToPosition to a position near the start.
+     */
+    @Test
+    public final void testMoveToPositionNearStart() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(4, "red",
+                "green", "blue", "yellow", "purple");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green", "blue",
+                "yellow", "purple");
+        /*
+         * Call method under test
+         */
+        list1.moveToPosition(1);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests moveToPosition to the far end of the list.
+     */
+    @Test
+    public final void testMoveToPositionFinish() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(THREE, "red", "green",
+                "blue");
+        /*
+         * Call method under test
+         */
+        list1.moveToPosition(THREE);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests moveToPosition backward from the cursor after a flip.
+     */
+    @Test
+    public final void testMoveToPositionAfterFlip() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue", "yellow", "purple");
+        List<String> list2 = this.createFromArgsRef(2, "purple", "yellow",
+                "blue", "green", "red");
+        /*
+         * Call method under test
+         */
+        list1.flip();
+        list1.moveToPosition(2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests entry on a list with the position index off.
+     */
+    @Test
+    public final void testEntry() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green", "blue");
+        /*
+         * Call method under test
+         */
+        String first = list1.entry(0);
+        String last = list1.entry(2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("red", first);
+        assertEquals("blue", last);
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests adding and removing entries with the position index on, then
+     * reading and moving to positions through it.
+     */
+    @Test
+    public final void testIndexedAddRemoveThenEntry() {
+        /*
+         * Set up variables
+         */
+        final int count = 100;
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0);
+        List<String> list2 = this.createFromArgsRef(0);
+        list1.setIndexed(true);
+        /*
+         * Call method under test
+         */
+        for (int i = 0; i < count; i++) {
+            list1.addRightFront("e" + i);
+            list2.addRightFront("e" + i);
+            if (i % 2 == 0) {
+                list1.advance();
+                list2.advance();
+            }
+        }
+        list1.moveToPosition(count / 2);
+        list1.removeRightFront();
+        list1.moveToPosition(count - 1);
+        list2.moveToStart();
+        for (int i = 0; i < count / 2; i++) {
+            list2.advance();
+        }
+        list2.removeRightFront();
+        list2.moveToFinish();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals("e0", list1.entry(0));
+        assertEquals("e97", list1.entry(count / 2));
+        assertEquals("e1", list1.entry(count - 2));
+    }
+
+    /**
+     * Tests flipping and splitting a list with the position index on.
+     */
+    @Test
+    public final void testIndexedFlipThenSplitRight() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue", "yellow");
+        List<String> list2 = this.createFromArgsRef(THREE, "yellow", "blue",
+                "green");
+        List<String> list3 = this.createFromArgsRef(0, "red");
+        list1.setIndexed(true);
+        /*
+         * Call method under test
+         */
+        list1.flip();
+        List3<String> right = list1.splitRight();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(list3, right);
+        assertEquals("green", list1.entry(2));
+    }
+
+    /**
+     * Tests walking a list backward with its list iterator.
+     */
+    @Test
+    public final void testListIteratorPrevious() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green", "blue");
+        StringBuilder seen = new StringBuilder();
+        /*
+         * Call method under test
+         */
+        ListIterator<String> it = list1.listIterator(THREE);
+        while (it.hasPrevious()) {
+            seen.append(it.previous());
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("bluegreenred", seen.toString());
+        assertEquals(0, it.nextIndex());
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests removing, replacing, and adding entries with the list iterator in
+     * one pass; the cursor stays between the same two entries.
+     */
+    @Test
+    public final void testListIteratorEdit() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green", "blue", "yellow");
+        List<String> list2 = this.createFromArgsRef(2, "RED", "pink", "blue",
+                "purple");
+        /*
+         * Call method under test
+         */
+        ListIterator<String> it = list1.listIterator();
+        while (it.hasNext()) {
+            String x = it.next();
+            if (x.equals("red")) {
+                it.set("RED");
+                it.add("pink");
+            } else if (x.equals("green")) {
+                it.remove();
+            } else if (x.equals("yellow")) {
+                it.remove();
+                it.add("purple");
+            }
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests that the list iterator fails fast when the list is changed other
+     * than through it.
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public final void testListIteratorFailFast() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0, "red",
+                "green");
+        ListIterator<String> it = list1.listIterator();
+        it.next();
+        /*
+         * Call method under test
+         */
+        list1.addRightFront("blue");
+        it.next();
+    }
+
+    /**
+     * Tests the size and characteristics reported by the spliterator, and that
+     * splitting it gives two halves.
+     */
+    @Test
+    public final void testSpliteratorSplit() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue", "yellow");
+        /*
+         * Call method under test
+         */
+        Spliterator<String> suffix = list1.spliterator();
+        Spliterator<String> prefix = suffix.trySplit();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(suffix.hasCharacteristics(Spliterator.SUBSIZED));
+        assertEquals(2, prefix.estimateSize());
+        assertEquals(2, suffix.estimateSize());
+        StringBuilder seen = new StringBuilder();
+        prefix.forEachRemaining(seen::append);
+        suffix.forEachRemaining(seen::append);
+        assertEquals("redgreenblueyellow", seen.toString());
+    }
+
+    /**
+     * Tests a sequential stream over a list.
+     */
+    @Test
+    public final void testStream() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green", "blue");
+        /*
+         * Call method under test
+         */
+        String joined = list1.stream().collect(Collectors.joining(","));
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("red,green,blue", joined);
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests that a parallel stream over a long list sees every entry once
+     * and in order.
+     */
+    @Test
+    public final void testParallelStream() {
+        /*
+         * Set up variables
+         */
+        final int count = 10000;
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0);
+        for (int i = count - 1; i >= 0; i--) {
+            list1.addRightFront(Integer.toString(i));
+        }
+        /*
+         * Call method under test
+         */
+        java.util.List<Integer> values = list1.parallelStream()
+                .map(Integer::valueOf).collect(Collectors.toList());
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(count, values.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, values.get(i).intValue());
+        }
+    }
+
+    /**
+     * Tests editing a list with only local convention checks.
+     */
+    @Test
+    public final void testLocalCheckingMode() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green");
+        List<String> list2 = this.createFromArgsRef(2, "red", "blue", "green");
+        List3.CheckingMode mode = List3.checkingMode();
+        /*
+         * Call method under test
+         */
+        List3.setCheckingMode(List3.CheckingMode.LOCAL);
+        try {
+            list1.addRightFront("blue");
+            list1.advance();
+            list1.flip();
+            list1.flip();
+        } finally {
+            List3.setCheckingMode(mode);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests building and walking a list with sampled convention checks.
+     */
+    @Test
+    public final void testSampledCheckingMode() {
+        /*
+         * Set up variables
+         */
+        final int count = 1000;
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0);
+        List<String> list2 = this.createFromArgsRef(0);
+        List3.CheckingMode mode = List3.checkingMode();
+        /*
+         * Call method under test
+         */
+        List3.setCheckingMode(List3.CheckingMode.SAMPLED);
+        try {
+            for (int i = 0; i < count; i++) {
+                list1.addRightFront("e" + i);
+                list1.advance();
+            }
+            list1.moveToStart();
+            while (list1.rightLength() > 0) {
+                list1.advance();
+            }
+        } finally {
+            List3.setCheckingMode(mode);
+        }
+        for (int i = 0; i < count; i++) {
+            list2.addRightFront("e" + i);
+            list2.advance();
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(mode, List3.checkingMode());
+    }
+
+    /**
+     * Tests that a snapshot keeps its value while the list is edited.
+     */
+    @Test
+    public final void testSnapshotUnchangedByEdits() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green", "blue");
+        List<String> list3 = this.createFromArgsRef(2, "red", "yellow",
+                "blue");
+        /*
+         * Call method under test
+         */
+        List<String> snapshot = list1.snapshot();
+        list1.removeRightFront();
+        list1.addRightFront("yellow");
+        list1.advance();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, snapshot);
+        assertEquals(list3, list1);
+    }
+
+    /**
+     * Tests that a snapshot keeps its value while the list is flipped,
+     * cleared, and edited through a list iterator.
+     */
+    @Test
+    public final void testSnapshotUnchangedByFlipAndIterator() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green", "blue");
+        List<String> list3 = this.createFromArgsRef(1, "BLUE", "green",
+                "red");
+        /*
+         * Call method under test
+         */
+        List<String> before = list1.snapshot();
+        list1.flip();
+        ListIterator<String> it = list1.listIterator();
+        it.next();
+        it.set("BLUE");
+        List<String> after = list1.snapshot();
+        list1.clear();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, before);
+        assertEquals(list3, after);
+        assertEquals(this.createFromArgsRef(0), list1);
+    }
+
+    /**
+     * Tests moving the cursor of a snapshot.
+     */
+    @Test
+    public final void testSnapshotCursor() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green", "blue");
+        /*
+         * Call method under test
+         */
+        List<String> snapshot = list1.snapshot();
+        snapshot.moveToFinish();
+        snapshot.retreat();
+        String front = snapshot.rightFront();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("blue", front);
+        assertEquals(list2, snapshot);
+        assertEquals(0, list1.leftLength());
+    }
+
+    /**
+     * Tests that a snapshot cannot be changed.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public final void testSnapshotReadOnly() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0, "red");
+        List<String> snapshot = list1.snapshot();
+        /*
+         * Call method under test
+         */
+        snapshot.addRightFront("green");
+    }
+
+    /**
+     * Tests editing through an extra cursor placed before the main cursor;
+     * the main cursor stays between the same two entries.
+     */
+    @Test
+    public final void testCursorAddBeforeMainCursor() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(THREE, "red", "yellow",
+                "green", "blue");
+        /*
+         * Call method under test
+         */
+        List3<String>.Cursor cursor = list1.newCursor();
+        cursor.advance();
+        cursor.addRightFront("yellow");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(1, cursor.leftLength());
+        assertEquals(THREE, cursor.rightLength());
+        assertEquals("yellow", cursor.rightFront());
+    }
+
+    /**
+     * Tests that removing through the main cursor moves an extra cursor that
+     * is past it.
+     */
+    @Test
+    public final void testCursorMovedByMainCursorRemove() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(0, "green", "blue");
+        List3<String>.Cursor cursor = list1.newCursor();
+        cursor.moveToPosition(2);
+        /*
+         * Call method under test
+         */
+        list1.removeRightFront();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(1, cursor.leftLength());
+        assertEquals("blue", cursor.rightFront());
+    }
+
+    /**
+     * Tests two extra cursors removing the entries on both sides of each
+     * other, then closing one of them.
+     */
+    @Test
+    public final void testTwoCursorsRemove() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0, "red",
+                "green", "blue", "yellow");
+        List<String> list2 = this.createFromArgsRef(0, "green", "yellow");
+        List3<String>.Cursor first = list1.newCursor();
+        List3<String>.Cursor second = list1.newCursor();
+        second.moveToPosition(2);
+        /*
+         * Call method under test
+         */
+        String removed1 = first.removeRightFront();
+        String removed2 = second.removeRightFront();
+        first.close();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("red", removed1);
+        assertEquals("blue", removed2);
+        assertEquals(1, second.leftLength());
+        assertEquals(list2, list1);
+    }
+
+
+    /**
+     * Tests sort with the cursor in the middle and an extra cursor open.
+     */
+    @Test
+    public final void testSortKeepsCursors() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green", "blue", "yellow", "cyan");
+        List<String> list2 = this.createFromArgsRef(2, "blue", "cyan",
+                "green", "red", "yellow");
+        List3<String>.Cursor cursor = list1.newCursor();
+        cursor.moveToPosition(THREE);
+        /*
+         * Call method under test
+         */
+        list1.sort(Comparator.naturalOrder());
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(THREE, cursor.leftLength());
+        assertEquals("red", cursor.rightFront());
+    }
+
+    /**
+     * Tests that sort keeps equal entries in their order, on a flipped list.
+     */
+    @Test
+    public final void testSortStableAfterFlip() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(0, "red",
+                "green", "blue", "yellow", "cyan");
+        List<String> list2 = this.createFromArgsRef(5, "red", "cyan", "blue",
+                "green", "yellow");
+        list1.flip();
+        /*
+         * Call method under test
+         */
+        list1.sort(Comparator.comparing(String::length));
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests parallelSort on a list long enough to be sorted in pieces, with
+     * the index on.
+     */
+    @Test
+    public final void testParallelSort() {
+        /*
+         * Set up variables
+         */
+        List3.CheckingMode mode = List3.checkingMode();
+        List3.setCheckingMode(List3.CheckingMode.LOCAL);
+        try {
+            List3<Integer> list = new List3<Integer>();
+            list.setIndexed(true);
+            for (int i = 0; i < PARALLEL_SORT_LENGTH; i++) {
+                list.addRightFront((i * THREE) % PARALLEL_SORT_LENGTH);
+            }
+            list.moveToPosition(PARALLEL_SORT_LENGTH / 2);
+            /*
+             * Call method under test
+             */
+            list.parallelSort(Comparator.naturalOrder());
+            /*
+             * Assert that values of variables match expectations
+             */
+            assertEquals(PARALLEL_SORT_LENGTH / 2, list.leftLength());
+            assertEquals(PARALLEL_SORT_LENGTH / 2, list.rightLength());
+            int expected = 0;
+            for (Integer x : list) {
+                assertEquals(expected, x.intValue());
+                expected++;
+            }
+            assertEquals(PARALLEL_SORT_LENGTH / 2,
+                    list.entry(PARALLEL_SORT_LENGTH / 2).intValue());
+        } finally {
+            List3.setCheckingMode(mode);
+        }
+    }
+
+
+    /**
+     * Returns an order on integers whose {@code compare} throws
+     * {@code IllegalStateException} on its {@code failAt}th call.
+     *
+     * @param failAt
+     *            the number of the call that throws
+     * @return the order
+     */
+    private static Comparator<Integer> failingOrder(int failAt) {
+        AtomicInteger calls = new AtomicInteger();
+        return (x, y) -> {
+            if (calls.incrementAndGet() == failAt) {
+                throw new IllegalStateException("compare call " + failAt);
+            }
+            return x.compareTo(y);
+        };
+    }
+
+    /**
+     * Asserts that {@code list} holds 0, 3, 6, ... (mod {@code length}) in
+     * that order, in {@code length} entries, with the cursor in the middle and
+     * {@code cursor} at position 1, and that the index still finds entries.
+     *
+     * @param list
+     *            the list
+     * @param cursor
+     *            an extra cursor on {@code list}
+     * @param length
+     *            the length of {@code list}
+     */
+    private static void assertUnsorted(List3<Integer> list,
+            List3<Integer>.Cursor cursor, int length) {
+        assertEquals(length / 2, list.leftLength());
+        assertEquals(length - length / 2, list.rightLength());
+        int i = 0;
+        for (Integer x : list) {
+            assertEquals((i * THREE) % length, x.intValue());
+            i++;
+        }
+        assertEquals(length, i);
+        assertEquals(1, cursor.leftLength());
+        assertEquals(THREE, cursor.rightFront().intValue());
+        assertEquals(((length / 2) * THREE) % length,
+                list.entry(length / 2).intValue());
+    }
+
+    /**
+     * Tests that sort leaves the list as it was when the comparator throws.
+     */
+    @Test
+    public final void testSortFailingComparator() {
+        /*
+         * Set up variables
+         */
+        final int length = 5000;
+        final int failAt = 3000;
+        List3.CheckingMode mode = List3.checkingMode();
+        List3.setCheckingMode(List3.CheckingMode.LOCAL);
+        try {
+            List3<Integer> list = new List3<Integer>();
+            list.setIndexed(true);
+            for (int i = 0; i < length; i++) {
+                list.addRightFront(((length - 1 - i) * THREE) % length);
+            }
+            list.moveToPosition(length / 2);
+            List3<Integer>.Cursor cursor = list.newCursor();
+            cursor.moveToPosition(1);
+            /*
+             * Call method under test
+             */
+            boolean thrown = false;
+            try {
+                list.sort(failingOrder(failAt));
+            } catch (IllegalStateException e) {
+                thrown = true;
+            }
+            /*
+             * Assert that values of variables match expectations
+             */
+            assertTrue(thrown);
+            assertUnsorted(list, cursor, length);
+        } finally {
+            List3.setCheckingMode(mode);
+        }
+    }
+
+    /**
+     * Tests that parallelSort leaves the list as it was when the comparator
+     * throws while pieces are being sorted in parallel.
+     */
+    @Test
+    public final void testParallelSortFailingComparator() {
+        /*
+         * Set up variables
+         */
+        List3.CheckingMode mode = List3.checkingMode();
+        List3.setCheckingMode(List3.CheckingMode.LOCAL);
+        try {
+            List3<Integer> list = new List3<Integer>();
+            list.setIndexed(true);
+            for (int i = 0; i < PARALLEL_SORT_LENGTH; i++) {
+                list.addRightFront(((PARALLEL_SORT_LENGTH - 1 - i) * THREE)
+                        % PARALLEL_SORT_LENGTH);
+            }
+            list.moveToPosition(PARALLEL_SORT_LENGTH / 2);
+            List3<Integer>.Cursor cursor = list.newCursor();
+            cursor.moveToPosition(1);
+            /*
+             * Call method under test
+             */
+            boolean thrown = false;
+            try {
+                list.parallelSort(failingOrder(PARALLEL_SORT_LENGTH));
+            } catch (IllegalStateException e) {
+                thrown = true;
+            }
+            /*
+             * Assert that values of variables match expectations
+             */
+            assertTrue(thrown);
+            assertUnsorted(list, cursor, PARALLEL_SORT_LENGTH);
+        } finally {
+            List3.setCheckingMode(mode);
+        }
+    }
+
+    /**
+     * Tests addRightFrontAll with an array, with an extra cursor in
+     * this.right.
+     */
+    @Test
+    public final void testAddRightFrontAllArray() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green");
+        List<String> list2 = this.createFromArgsRef(1, "red", "blue",
+                "yellow", "green");
+        List3<String>.Cursor cursor = list1.newCursor();
+        cursor.moveToPosition(2);
+        /*
+         * Call method under test
+         */
+        list1.addRightFrontAll(new String[] { "blue", "yellow" });
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(2 + 2, cursor.leftLength());
+    }
+
+    /**
+     * Tests addRightFrontAll with the list itself as the Iterable.
+     */
+    @Test
+    public final void testAddRightFrontAllSelf() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(2, "red",
+                "green", "blue");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green", "red",
+                "green", "blue", "blue");
+        /*
+         * Call method under test
+         */
+        list1.addRightFrontAll(list1);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests removeRightFront(int) with the index on and extra cursors inside
+     * and past the removed run.
+     */
+    @Test
+    public final void testRemoveRightFrontMany() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue", "yellow", "cyan");
+        List<String> list2 = this.createFromArgsRef(1, "red", "yellow",
+                "cyan");
+        List<String> list3 = this.createFromArgsRef(0, "green", "blue");
+        list1.setIndexed(true);
+        List3<String>.Cursor inside = list1.newCursor();
+        inside.moveToPosition(2);
+        List3<String>.Cursor past = list1.newCursor();
+        past.moveToPosition(2 + 2);
+        /*
+         * Call method under test
+         */
+        List3<String> removed = list1.removeRightFront(2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        assertEquals(list3, removed);
+        assertEquals(1, inside.leftLength());
+        assertEquals(2, past.leftLength());
+        assertEquals("cyan", list1.entry(2));
+    }
+
+    /**
+     * Tests advance(int) and then retreat(int).
+     */
+    @Test
+    public final void testAdvanceRetreatMany() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue", "yellow", "cyan");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green", "blue",
+                "yellow", "cyan");
+        /*
+         * Call method under test
+         */
+        list1.advance(THREE);
+        list1.retreat(2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+
+    /**
+     * Tests writeTo and then readFrom on a flipped list, into a list that is
+     * not empty.
+     *
+     * @throws IOException
+     *             if the in-memory streams fail
+     */
+    @Test
+    public final void testWriteToReadFrom() throws IOException {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green", "blue");
+        List3<String> list2 = (List3<String>) this.createFromArgsTest(0,
+                "yellow");
+        List<String> list3 = this.createFromArgsRef(2, "blue", "green",
+                "red");
+        list1.flip();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        /*
+         * Call method under test
+         */
+        list1.writeTo(new DataOutputStream(bytes), ElementCodec.strings());
+        list2.readFrom(
+                new DataInputStream(
+                        new ByteArrayInputStream(bytes.toByteArray())),
+                ElementCodec.strings());
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list3, list1);
+        assertEquals(list3, list2);
+    }
+
+    /**
+     * Tests that readFrom rejects input not written by writeTo and leaves the
+     * list unchanged.
+     */
+    @Test
+    public final void testReadFromBadHeader() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = (List3<String>) this.createFromArgsTest(1, "red",
+                "green");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green");
+        byte[] bytes = { 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0 };
+        boolean thrown = false;
+        /*
+         * Call method under test
+         */
+        try {
+            list1.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)),
+                    ElementCodec.strings());
+        } catch (IOException e) {
+            thrown = true;
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertTrue(thrown);
+        assertEquals(list2, list1);
+    }
+
+
+    /**
+     * Tests that newInstance makes a list of the same dynamic type, for
+     * List3 and for a subclass.
+     */
+    @Test
+    public final void testNewInstanceKeepsType() {
+        /*
+         * Set up variables
+         */
+        List3<String> list1 = new List3<String>();
+        List3<String> list2 = new SubList3<String>();
+        list2.addRightFront("red");
+        /*
+         * Call method under test
+         */
+        List3<String> list3 = list1.newInstance();
+        List3<String> list4 = list2.newInstance();
+        List3<String> list5 = list2.newInstance();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(List3.class, list3.getClass());
+        assertEquals(SubList3.class, list4.getClass());
+        assertEquals(SubList3.class, list5.getClass());
+        assertEquals(0, list4.rightLength());
+        assertTrue(list4 != list5);
+    }
+
+
+    /**
+     * Tests List3.of.
+     */
+    @Test
+    public final void testOf() {
+        /*
+         * Set up variables
+         */
+        List<String> list2 = this.createFromArgsRef(0, "red", "green",
+                "blue");
+        /*
+         * Call method under test
+         */
+        List3<String> list1 = List3.of("red", "green", "blue");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests List3.from with the cursor in the middle, then editing at the
+     * cursor.
+     */
+    @Test
+    public final void testFromMiddle() {
+        /*
+         * Set up variables
+         */
+        List<String> list2 = this.createFromArgsRef(2, "red", "green",
+                "yellow", "blue");
+        /*
+         * Call method under test
+         */
+        List3<String> list1 = List3.from(Arrays.asList("red", "green", "blue"),
+                2);
+        list1.addRightFront("yellow");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests List3.from with the cursor at the finish.
+     */
+    @Test
+    public final void testFromFinish() {
+        /*
+         * Set up variables
+         */
+        List<String> list2 = this.createFromArgsRef(THREE, "red", "green",
+                "blue");
+        /*
+         * Call method under test
+         */
+        List3<String> list1 = List3.from(Arrays.asList("red", "green", "blue"),
+                THREE);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+    }
+
+
+    /**
+     * Tests equals between a flipped List3, an unflipped List3, and a List1L.
+     */
+    @Test
+    public final void testEqualsFlipped() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "blue", "green",
+                "red");
+        List<String> list2 = this.createFromArgsTest(2, "red", "green",
+                "blue");
+        List<String> list3 = this.createFromArgsRef(1, "blue", "green", "red");
+        /*
+         * Call method under test
+         */
+        list2.flip();
+        boolean same = list1.equals(list2) && list2.equals(list1)
+                && list2.equals(list3) && list1.hashCode() == list2.hashCode()
+                && list2.hashCode() == list3.hashCode();
+        list2.advance();
+        boolean different = !list1.equals(list2) && !list2.equals(list3);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertTrue(same);
+        assertTrue(different);
+    }
+
+    /**
+     * Tests that hashCode changes with the list after it has been cached.
+     */
+    @Test
+    public final void testHashCodeAfterChanges() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "green");
+        int cached = list1.hashCode();
+        /*
+         * Call method under test
+         */
+        list1.addRightFront("blue");
+        int added = list1.hashCode();
+        list1.advance();
+        int advanced = list1.hashCode();
+        ListIterator<String> it = ((List3<String>) list1).listIterator();
+        it.next();
+        it.set("yellow");
+        int set = list1.hashCode();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(cached, this.createFromArgsRef(1, "red", "green")
+                .hashCode());
+        assertEquals(added, this.createFromArgsRef(1, "red", "blue", "green")
+                .hashCode());
+        assertEquals(advanced, this
+                .createFromArgsRef(2, "red", "blue", "green").hashCode());
+        assertEquals(set, this
+                .createFromArgsRef(2, "yellow", "blue", "green").hashCode());
+    }
+
+    /**
+     * Tests toString with entries on both sides, on one side, and on neither.
+     */
+    @Test
+    public final void testToString() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(2, "red", "green",
+                "blue");
+        List<String> list2 = this.createFromArgsTest(0, "red", "green");
+        List<String> list3 = this.createFromArgsTest(2, "red", "green");
+        List<String> list4 = this.createFromArgsTest(0);
+        /*
+         * Call method under test
+         */
+        list1.flip();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("(<blue>,<green,red>)", list1.toString());
+        assertEquals("(<>,<red,green>)", list2.toString());
+        assertEquals("(<red,green>,<>)", list3.toString());
+        assertEquals("(<>,<>)", list4.toString());
+    }
+
 }
@@ -0,0 +1,19 @@
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List5}.
+ */
+public class List5Test extends ListTest {
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List5<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+}
@@ -0,0 +1,135 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List6}.
+ */
+public class List6Test extends ListTest {
+
+    /**
+     * Largest number of bytes in the UTF-8 encoding of a test entry.
+     */
+    private static final int MAX_ENTRY_BYTES = 16;
+
+    /**
+     * Number of entries in the close test; more than fit in the initial
+     * memory.
+     */
+    private static final int GROWN_LENGTH = 20;
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List6<String>(List6.stringCodec(MAX_ENTRY_BYTES));
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+
+    /*
+     * Test cases for List6-specific methods.
+     */
+
+    /**
+     * Tests transferFrom between lists made with codecs from separate calls of
+     * stringCodec.
+     */
+    @Test
+    public final void testTransferFrom() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red");
+        List<String> list2 = this.createFromArgsTest(1, "green", "blue");
+        List<String> list3 = this.createFromArgsRef(0);
+        List<String> list4 = this.createFromArgsRef(1, "green", "blue");
+        /*
+         * Call method under test
+         */
+        list1.transferFrom(list2);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list4, list1);
+        assertEquals(list3, list2);
+    }
+
+    /**
+     * Tests clear after close, and adding to a list past its first doubling
+     * afterwards.
+     */
+    @Test
+    public final void testCloseThenClear() {
+        /*
+         * Set up variables
+         */
+        List6<Integer> list1 = new List6<Integer>(List6.integerCodec());
+        List<Integer> list2 = new List1L<Integer>();
+        list1.addRightFront(1);
+        /*
+         * Call method under test
+         */
+        list1.close();
+        list1.clear();
+        for (int i = 0; i < GROWN_LENGTH; i++) {
+            list1.addRightFront(i);
+            list2.addRightFront(i);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list1);
+        list1.close();
+    }
+
+    /**
+     * Tests that addRightFront rejects a string too long for the codec and
+     * leaves the list as it was.
+     */
+    @Test
+    public final void testAddRightFrontTooLong() {
+        /*
+         * Set up variables
+         */
+        List<String> list1 = this.createFromArgsTest(1, "red", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "blue");
+        StringBuilder tooLong = new StringBuilder();
+        for (int i = 0; i <= MAX_ENTRY_BYTES; i++) {
+            tooLong.append('x');
+        }
+        /*
+         * Call method under test
+         */
+        boolean thrown = false;
+        try {
+            list1.addRightFront(tooLong.toString());
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertTrue(thrown);
+        assertEquals(list2, list1);
+        list1.addRightFront("green");
+        list2.addRightFront("green");
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests that stringCodec rejects a width whose length does not fit in a
+     * short.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testStringCodecTooWide() {
+        List6.stringCodec(Short.MAX_VALUE + 1);
+    }
+
+}
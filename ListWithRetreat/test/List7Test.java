@@ -0,0 +1,157 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List7}.
+ */
+public class List7Test extends ListTest {
+
+    /**
+     * Largest number of bytes in the UTF-8 encoding of a test entry.
+     */
+    private static final int MAX_ENTRY_BYTES = 16;
+
+    /**
+     * Number of entries in the reopening test; more than fit in the initial
+     * mapping.
+     */
+    private static final int REOPEN_LENGTH = 100;
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List7<String>(List6.stringCodec(MAX_ENTRY_BYTES));
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /*
+     * Test cases for List7-specific methods.
+     */
+
+    /**
+     * Tests closing a list and opening its file again.
+     *
+     * @throws IOException
+     *             if the temporary file cannot be created
+     */
+    @Test
+    public final void testReopen() throws IOException {
+        /*
+         * Set up variables
+         */
+        Path file = Files.createTempFile("List7Test", ".list");
+        file.toFile().deleteOnExit();
+        List<String> list2 = this.createFromArgsRef(0);
+        List7<String> list1 = new List7<String>(file,
+                List6.stringCodec(MAX_ENTRY_BYTES));
+        for (int i = 0; i < REOPEN_LENGTH; i++) {
+            list1.addRightFront("e" + i);
+            list2.addRightFront("e" + i);
+        }
+        list1.removeRightFront();
+        list2.removeRightFront();
+        list1.advance();
+        list2.advance();
+        /*
+         * Call method under test
+         */
+        list1.close();
+        List7<String> list3 = new List7<String>(file,
+                List6.stringCodec(MAX_ENTRY_BYTES));
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list3);
+        list3.addRightFront("red");
+        list2.addRightFront("red");
+        assertEquals(list2, list3);
+        list3.close();
+    }
+
+    /**
+     * Test reopening a file changed since it was last forced, as after a
+     * crash: the entries are as last changed, and the cursor as last written,
+     * which does not include later cursor moves.
+     *
+     * @throws IOException
+     *             if the temporary file cannot be created
+     */
+    @Test
+    public final void testReopenDirty() throws IOException {
+        /*
+         * Set up variables
+         */
+        Path file = Files.createTempFile("List7Test", ".list");
+        file.toFile().deleteOnExit();
+        List<String> list2 = this.createFromArgsRef(0);
+        List7<String> list1 = new List7<String>(file,
+                List6.stringCodec(MAX_ENTRY_BYTES));
+        for (int i = 0; i < REOPEN_LENGTH; i++) {
+            list1.addRightFront("e" + i);
+            list2.addRightFront("e" + i);
+        }
+        list1.force();
+        list1.advance();
+        list2.advance();
+        list1.removeRightFront();
+        list2.removeRightFront();
+        list1.advance();
+        /*
+         * Call method under test, with list1 never forced or closed
+         */
+        List7<String> list3 = new List7<String>(file,
+                List6.stringCodec(MAX_ENTRY_BYTES));
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(list2, list3);
+        list3.addRightFront("red");
+        list2.addRightFront("red");
+        assertEquals(list2, list3);
+        list3.close();
+    }
+
+    /**
+     * Test reopening a file cut short.
+     *
+     * @throws IOException
+     *             if the temporary file cannot be created or cut
+     */
+    @Test(expected = UncheckedIOException.class)
+    public final void testReopenDamaged() throws IOException {
+        /*
+         * Set up variables
+         */
+        Path file = Files.createTempFile("List7Test", ".list");
+        file.toFile().deleteOnExit();
+        List7<String> list1 = new List7<String>(file,
+                List6.stringCodec(MAX_ENTRY_BYTES));
+        for (int i = 0; i < REOPEN_LENGTH; i++) {
+            list1.addRightFront("e" + i);
+        }
+        list1.close();
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() / 2);
+        }
+        /*
+         * Call method under test
+         */
+        new List7<String>(file, List6.stringCodec(MAX_ENTRY_BYTES));
+    }
+
+}
@@ -0,0 +1,175 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.PrimitiveIterator;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code LongList3}'s constructor and methods.
+ *
+ * @author Layan Abdallah & Oak Hodous
+ *
+ */
+public class LongList3Test {
+
+    /**
+     * Constant of value 3 to avoid magic number warnings.
+     */
+    private static final int THREE = 3;
+
+    /**
+     * Number of entries that forces the slot arrays to grow more than once.
+     */
+    private static final int MANY = 100;
+
+    /**
+     * Creates and returns an {@code LongList3} with the given entries.
+     *
+     * @param leftLength
+     *            the length of the left string in the constructed list
+     * @param args
+     *            the entries for the list
+     * @return the constructed list
+     * @requires 0 <= leftLength <= args.length
+     * @ensures <pre>
+     * createFromArgs =
+     *   ([first leftLength entries in args], [remaining entries in args])
+     * </pre>
+     */
+    private static LongList3 createFromArgs(int leftLength, long... args) {
+        LongList3 list = new LongList3();
+        for (long x : args) {
+            list.addRightFront(x);
+            list.advance();
+        }
+        list.moveToStart();
+        for (int i = 0; i < leftLength; i++) {
+            list.advance();
+        }
+        return list;
+    }
+
+    /**
+     * Tests the no-argument constructor.
+     */
+    @Test
+    public final void testConstructor() {
+        LongList3 list = new LongList3();
+        assertEquals(0, list.leftLength());
+        assertEquals(0, list.rightLength());
+        assertEquals("(<>,<>)", list.toString());
+    }
+
+    /**
+     * Tests adding an entry at the cursor of a list with entries on both
+     * sides.
+     */
+    @Test
+    public final void testAddRightFront() {
+        LongList3 list1 = createFromArgs(1, 1, 2);
+        LongList3 list2 = createFromArgs(1, 1, THREE, 2);
+        list1.addRightFront(THREE);
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests removing the entry at the cursor.
+     */
+    @Test
+    public final void testRemoveRightFront() {
+        LongList3 list1 = createFromArgs(1, 1, THREE, 2);
+        LongList3 list2 = createFromArgs(1, 1, 2);
+        long x = list1.removeRightFront();
+        assertEquals(THREE, x);
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Tests advance, retreat, moveToStart, and moveToFinish.
+     */
+    @Test
+    public final void testCursorMoves() {
+        LongList3 list = createFromArgs(0, 1, 2, THREE);
+        list.advance();
+        list.advance();
+        assertEquals(createFromArgs(2, 1, 2, THREE), list);
+        list.retreat();
+        assertEquals(createFromArgs(1, 1, 2, THREE), list);
+        list.moveToFinish();
+        assertEquals(createFromArgs(THREE, 1, 2, THREE), list);
+        list.moveToStart();
+        assertEquals(createFromArgs(0, 1, 2, THREE), list);
+    }
+
+    /**
+     * Tests adding and removing enough entries to grow the slot arrays and
+     * reuse freed slots.
+     */
+    @Test
+    public final void testGrowAndReuse() {
+        LongList3 list = new LongList3();
+        for (int i = 0; i < MANY; i++) {
+            list.addRightFront(i);
+        }
+        for (int i = MANY - 1; i >= MANY / 2; i--) {
+            assertEquals(i, list.removeRightFront());
+        }
+        for (int i = 0; i < MANY / 2; i++) {
+            list.addRightFront(i);
+        }
+        assertEquals(0, list.leftLength());
+        assertEquals(MANY, list.rightLength());
+    }
+
+    /**
+     * Tests iterating over a list with entries on both sides.
+     */
+    @Test
+    public final void testIterator() {
+        LongList3 list = createFromArgs(1, 1, 2, THREE);
+        PrimitiveIterator.OfLong it = list.iterator();
+        long sum = 0;
+        int count = 0;
+        while (it.hasNext()) {
+            sum += it.nextLong();
+            count++;
+        }
+        assertEquals(1 + 2 + THREE, sum);
+        assertEquals(THREE, count);
+        assertEquals(createFromArgs(1, 1, 2, THREE), list);
+    }
+
+    /**
+     * Tests transferFrom.
+     */
+    @Test
+    public final void testTransferFrom() {
+        LongList3 list1 = new LongList3();
+        LongList3 list2 = createFromArgs(1, 1, 2);
+        list1.transferFrom(list2);
+        assertEquals(createFromArgs(1, 1, 2), list1);
+        assertEquals(new LongList3(), list2);
+    }
+
+    /**
+     * Tests entries that do not fit in an {@code int}.
+     */
+    @Test
+    public final void testLargeEntries() {
+        LongList3 list = new LongList3();
+        list.addRightFront(Long.MAX_VALUE);
+        list.addRightFront(Long.MIN_VALUE);
+        assertEquals(Long.MIN_VALUE, list.removeRightFront());
+        assertEquals(Long.MAX_VALUE, list.removeRightFront());
+    }
+
+    /**
+     * Tests toString.
+     */
+    @Test
+    public final void testToString() {
+        LongList3 list = createFromArgs(2, 1, 2, THREE);
+        assertEquals("(<1,2>,<3>)", list.toString());
+    }
+
+}